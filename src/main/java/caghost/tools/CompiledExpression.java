@@ -0,0 +1,413 @@
+package caghost.tools;
+
+import java.security.InvalidParameterException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Second tier of MatrixEquationInterpreter. The expression is parsed once into a tree which is then turned into a
+ * chain of lambdas (kernels), so evaluating it again does no string work at all.
+ * <p>
+ * Operand shapes are fixed at compile time, every intermediate result gets its own preallocated buffer and element
+ * wise chains like 2*A + B - 3*C are fused into a single pass with the scalars folded into the coefficients.
+ * The compiled form is tied to the matrices it was compiled against, see isCompiledFor.
+ */
+final class CompiledExpression {
+
+    @FunctionalInterface
+    private interface Kernel {
+        Fraction[][] evaluate();
+    }
+
+    private final Matrix[] operands;
+    private final Kernel root;
+    private final int rows, columns;
+
+    private CompiledExpression(Matrix[] operands, Node tree) {
+        this.operands = operands;
+        if (tree.isScalar())
+            throw new InvalidParameterException("Expression contains no matrix");
+        root = tree.kernel();
+        rows = tree.rows;
+        columns = tree.columns;
+    }
+
+    static CompiledExpression compile(List<Matrix> matrices, String expression) {
+        var parser = new Parser(matrices, expression);
+        var tree = parser.parse();
+        return new CompiledExpression(parser.operands, tree);
+    }
+
+    /**
+     * True if the matrices at every index used by the expression are still the same instances it was compiled for.
+     * Values may change between evaluations, shapes may not.
+     */
+    boolean isCompiledFor(List<Matrix> matrices) {
+        if (matrices.size() < operands.length)
+            return false;
+        for (int i = 0; i < operands.length; i++) {
+            if (operands[i] != null && operands[i] != matrices.get(i))
+                return false;
+        }
+        return true;
+    }
+
+    Matrix evaluate() {
+        var result = root.evaluate();
+        var values = new Fraction[rows][];
+        for (int i = 0; i < rows; i++)
+            values[i] = result[i].clone();
+        return new Matrix(values);
+    }
+
+    Matrix evaluateInto(Matrix destination) {
+        if (destination.getRows() != rows || destination.getColumns() != columns)
+            throw new InvalidParameterException("Destination has the wrong size");
+        destination.setValues(root.evaluate());
+        return destination;
+    }
+
+    private static void multiply(Fraction[][] a, Fraction[][] b, Fraction[][] out) { //out must not be a or b
+        int inner = b.length, columns = b[0].length;
+        for (int i = 0; i < a.length; i++) {
+            for (int j = 0; j < columns; j++) {
+                Fraction sum = Fraction.ZERO;
+                for (int k = 0; k < inner; k++)
+                    sum = sum.add(a[i][k].multiply(b[k][j]));
+                out[i][j] = sum;
+            }
+        }
+    }
+
+    private abstract static class Node {
+        int rows, columns;
+
+        boolean isScalar() {
+            return false;
+        }
+
+        abstract Kernel kernel();
+    }
+
+    private static final class Operand extends Node {
+        private final Matrix matrix;
+
+        Operand(Matrix matrix) {
+            this.matrix = matrix;
+            rows = matrix.getRows();
+            columns = matrix.getColumns();
+        }
+
+        @Override
+        Kernel kernel() {
+            var values = matrix.getValues();
+            return () -> values;
+        }
+    }
+
+    private static final class Constant extends Node {
+        private final Fraction value;
+
+        Constant(Fraction value) {
+            this.value = value;
+        }
+
+        @Override
+        boolean isScalar() {
+            return true;
+        }
+
+        @Override
+        Kernel kernel() {
+            throw new InvalidParameterException("Scalar has no kernel");
+        }
+    }
+
+    /**
+     * Sum of coefficient * term, evaluated element by element in one pass over the output.
+     */
+    private static final class Sum extends Node {
+        private final List<Fraction> coefficients = new ArrayList<>();
+        private final List<Node> terms = new ArrayList<>();
+
+        void add(Fraction coefficient, Node term) {
+            if (term instanceof Sum) {
+                var sum = (Sum) term;
+                for (int i = 0; i < sum.terms.size(); i++)
+                    add(coefficient.multiply(sum.coefficients.get(i)), sum.terms.get(i));
+                return;
+            }
+            if (!terms.isEmpty() && (term.rows != rows || term.columns != columns))
+                throw new InvalidParameterException("Cannot be added");
+            rows = term.rows;
+            columns = term.columns;
+            coefficients.add(coefficient);
+            terms.add(term);
+        }
+
+        @Override
+        Kernel kernel() {
+            int n = terms.size();
+            var kernels = new Kernel[n];
+            var factors = coefficients.toArray(new Fraction[0]);
+            var signs = new int[n]; //1 and -1 skip the multiplication, 0 means a real coefficient
+            for (int k = 0; k < n; k++) {
+                kernels[k] = terms.get(k).kernel();
+                signs[k] = factors[k].equals(1) ? 1 : factors[k].equals(-1) ? -1 : 0;
+            }
+            var inputs = new Fraction[n][][];
+            var out = new Fraction[rows][columns];
+            return () -> {
+                for (int k = 0; k < n; k++)
+                    inputs[k] = kernels[k].evaluate();
+                for (int i = 0; i < rows; i++) {
+                    for (int j = 0; j < columns; j++) {
+                        Fraction sum = Fraction.ZERO;
+                        for (int k = 0; k < n; k++) {
+                            Fraction value = inputs[k][i][j];
+                            if (signs[k] == 1)
+                                sum = sum.add(value);
+                            else if (signs[k] == -1)
+                                sum = sum.subtract(value);
+                            else
+                                sum = sum.add(value.multiply(factors[k]));
+                        }
+                        out[i][j] = sum;
+                    }
+                }
+                return out;
+            };
+        }
+    }
+
+    private static final class Product extends Node {
+        private final Node left, right;
+
+        Product(Node left, Node right) {
+            if (left.columns != right.rows)
+                throw new InvalidParameterException("Cannot be multiplied");
+            this.left = left;
+            this.right = right;
+            rows = left.rows;
+            columns = right.columns;
+        }
+
+        @Override
+        Kernel kernel() {
+            Kernel a = left.kernel(), b = right.kernel();
+            var out = new Fraction[rows][columns];
+            return () -> {
+                multiply(a.evaluate(), b.evaluate(), out);
+                return out;
+            };
+        }
+    }
+
+    /**
+     * Repeated multiplication like Matrix.pow, alternating between two buffers so the last product lands in the result.
+     */
+    private static final class Power extends Node {
+        private final Node base;
+        private final int power;
+
+        Power(Node base, int power) {
+            if (base.rows != base.columns)
+                throw new InvalidParameterException("Cannot be multiplied");
+            this.base = base;
+            this.power = power;
+            rows = columns = base.rows;
+        }
+
+        @Override
+        Kernel kernel() {
+            var a = base.kernel();
+            var buffers = new Fraction[][][]{new Fraction[rows][rows], new Fraction[rows][rows]};
+            int products = power - 1;
+            return () -> {
+                var values = a.evaluate();
+                var product = values;
+                for (int k = 1; k <= products; k++) {
+                    var target = buffers[(products - k) % 2];
+                    multiply(values, product, target);
+                    product = target;
+                }
+                return product;
+            };
+        }
+    }
+
+    private static final class Function extends Node {
+        private final MatrixFunction function;
+        private final Node argument;
+
+        Function(MatrixFunction function, Node argument) {
+            if (argument.isScalar())
+                throw new InvalidParameterException("Function of a scalar");
+            this.function = function;
+            this.argument = argument;
+            rows = function.rows(argument.rows, argument.columns);
+            columns = function.columns(argument.rows, argument.columns);
+        }
+
+        @Override
+        Kernel kernel() {
+            var a = argument.kernel();
+            var out = new Fraction[rows][columns];
+            return () -> {
+                function.apply(a.evaluate(), out);
+                return out;
+            };
+        }
+    }
+
+    /**
+     * Recursive descent parser, same operators and precedence as the interpreter: ^ before * before + and -,
+     * plus the calls of MatrixFunction. Like the interpreter it has no unary minus, both tiers have to accept the
+     * same expressions or the result would change once the expression is compiled.
+     */
+    private static final class Parser {
+        private final List<Matrix> matrices;
+        private final String s;
+        private Matrix[] operands;
+        private int position = 0;
+
+        Parser(List<Matrix> matrices, String s) {
+            this.matrices = matrices;
+            this.s = s;
+            operands = new Matrix[0];
+        }
+
+        Node parse() {
+            var node = sum();
+            if (peek() != 0)
+                throw error();
+            return node;
+        }
+
+        private Node sum() {
+            var node = product();
+            for (char c = peek(); c == '+' || c == '-'; c = peek()) {
+                position++;
+                node = add(node, product(), c == '+' ? Fraction.ONE : new Fraction(-1));
+            }
+            return node;
+        }
+
+        private Node product() {
+            var node = power();
+            while (peek() == '*') {
+                position++;
+                node = multiply(node, power());
+            }
+            return node;
+        }
+
+        private Node power() {
+            var node = primary();
+            if (peek() == '^') {
+                position++;
+                if (!Character.isDigit(peek()))
+                    throw error();
+                int power = number();
+                if (node.isScalar()) {
+                    var value = ((Constant) node).value;
+                    Fraction result = Fraction.ONE;
+                    for (int i = 0; i < power; i++)
+                        result = result.multiply(value);
+                    return new Constant(result);
+                }
+                return power > 1 ? new Power(node, power) : node;
+            }
+            return node;
+        }
+
+        private Node primary() {
+            char c = peek();
+            if (c == '(') {
+                position++;
+                var node = sum();
+                if (peek() != ')')
+                    throw error();
+                position++;
+                return node;
+            }
+            if (Character.isDigit(c))
+                return new Constant(new Fraction(number()));
+            if (c >= 'A' && c <= 'Z')
+                return operand();
+            if (c >= 'a' && c <= 'z')
+                return function();
+            throw error();
+        }
+
+        private Node function() {
+            int start = position;
+            while (position < s.length() && s.charAt(position) >= 'a' && s.charAt(position) <= 'z')
+                position++;
+            var function = MatrixFunction.of(s.substring(start, position));
+            if (peek() != '(')
+                throw error();
+            position++;
+            var argument = sum();
+            if (peek() != ')')
+                throw error();
+            position++;
+            return new Function(function, argument);
+        }
+
+        private Node operand() { //names are [A-Z]+\d?, the first letter picks the matrix like in the interpreter
+            int index = s.charAt(position) - 'A';
+            while (position < s.length() && s.charAt(position) >= 'A' && s.charAt(position) <= 'Z')
+                position++;
+            if (position < s.length() && Character.isDigit(s.charAt(position)))
+                position++;
+            if (index >= matrices.size())
+                throw new InvalidParameterException("No matrix " + (char) ('A' + index));
+            if (index >= operands.length)
+                operands = Arrays.copyOf(operands, index + 1);
+            operands[index] = matrices.get(index);
+            return new Operand(operands[index]);
+        }
+
+        private int number() {
+            int start = position;
+            while (position < s.length() && Character.isDigit(s.charAt(position)))
+                position++;
+            return Integer.parseInt(s.substring(start, position));
+        }
+
+        private static Node add(Node a, Node b, Fraction sign) {
+            if (a.isScalar() && b.isScalar())
+                return new Constant(((Constant) a).value.add(((Constant) b).value.multiply(sign)));
+            if (a.isScalar() || b.isScalar())
+                throw new InvalidParameterException("Cannot add a scalar to a matrix");
+            var sum = new Sum();
+            sum.add(Fraction.ONE, a);
+            sum.add(sign, b);
+            return sum;
+        }
+
+        private static Node multiply(Node a, Node b) {
+            if (a.isScalar() && b.isScalar())
+                return new Constant(((Constant) a).value.multiply(((Constant) b).value));
+            if (a.isScalar() || b.isScalar()) {
+                var scalar = ((Constant) (a.isScalar() ? a : b)).value;
+                var sum = new Sum();
+                sum.add(scalar, a.isScalar() ? b : a);
+                return sum;
+            }
+            return new Product(a, b);
+        }
+
+        private char peek() { //skips whitespace, 0 at the end
+            while (position < s.length() && Character.isWhitespace(s.charAt(position)))
+                position++;
+            return position < s.length() ? s.charAt(position) : 0;
+        }
+
+        private InvalidParameterException error() {
+            return new InvalidParameterException("Invalid expression at " + position);
+        }
+    }
+}
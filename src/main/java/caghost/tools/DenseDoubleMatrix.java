@@ -0,0 +1,115 @@
+package caghost.tools;
+
+import java.security.InvalidParameterException;
+import java.util.Arrays;
+
+public final class DenseDoubleMatrix implements DoubleMatrix {
+
+    private final double[][] values;
+    private final int rows, columns;
+
+    /**
+     * Class constructor. Creates a zero matrix of specified size.
+     *
+     * @param rows    number of rows.
+     * @param columns number of columns.
+     */
+    public DenseDoubleMatrix(int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        values = new double[rows][columns];
+    }
+
+    /**
+     * Class constructor. Uses the specified array directly, it is not copied.
+     *
+     * @param values - 2D rectangular array of doubles.
+     */
+    public DenseDoubleMatrix(double[][] values) {
+        this.values = values;
+        rows = values.length;
+        columns = values[0].length;
+    }
+
+    public static DenseDoubleMatrix of(Matrix A) {
+        return of(A.getValues());
+    }
+
+    static DenseDoubleMatrix of(Fraction[][] fractions) {
+        var values = new double[fractions.length][fractions[0].length];
+        for (int i = 0; i < values.length; i++) {
+            for (int j = 0; j < values[i].length; j++)
+                values[i][j] = fractions[i][j].doubleValue();
+        }
+        return new DenseDoubleMatrix(values);
+    }
+
+    public static DenseDoubleMatrix of(DoubleMatrix A) {
+        if (A instanceof DenseDoubleMatrix)
+            return (DenseDoubleMatrix) A;
+        var values = new double[A.getRows()][A.getColumns()];
+        for (int i = 0; i < A.getRows(); i++) {
+            for (int j = 0; j < A.getColumns(); j++)
+                values[i][j] = A.get(i, j);
+        }
+        return new DenseDoubleMatrix(values);
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getColumns() {
+        return columns;
+    }
+
+    @Override
+    public double get(int row, int column) {
+        return values[row][column];
+    }
+
+    public void set(int row, int column, double value) {
+        values[row][column] = value;
+    }
+
+    public double[][] getValues() {
+        return values;
+    }
+
+    @Override
+    public void multiply(double[] x, double[] y) {
+        if (x.length != columns || y.length != rows)
+            throw new InvalidParameterException("Cannot be multiplied");
+        for (int i = 0; i < rows; i++) {
+            double sum = 0;
+            double[] row = values[i];
+            for (int j = 0; j < columns; j++)
+                sum += row[j] * x[j];
+            y[i] = sum;
+        }
+    }
+
+    @Override
+    public SparseDoubleMatrix toSparse() {
+        return SparseDoubleMatrix.of(this);
+    }
+
+    public DenseDoubleMatrix clone() {
+        var copy = new double[rows][];
+        for (int i = 0; i < rows; i++)
+            copy[i] = Arrays.copyOf(values[i], columns);
+        return new DenseDoubleMatrix(copy);
+    }
+
+    public String toString() {
+        var s = new StringBuilder();
+        for (double[] row : values) {
+            for (double d : row)
+                s.append(" ").append(d).append(" ");
+            s.append("\n");
+        }
+        return s.toString();
+    }
+}
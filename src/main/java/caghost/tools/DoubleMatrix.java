@@ -0,0 +1,40 @@
+package caghost.tools;
+
+/**
+ * A matrix backed by doubles, used where exact fractions are too slow or too large (iterative solvers etc.).
+ * Implementations only have to support reading entries and multiplying by a vector.
+ */
+public interface DoubleMatrix {
+
+    int getRows();
+
+    int getColumns();
+
+    double get(int row, int column);
+
+    /**
+     * Computes y = Ax. y has to be a different array than x.
+     *
+     * @param x vector of length columns.
+     * @param y vector of length rows, overwritten with the result.
+     */
+    void multiply(double[] x, double[] y);
+
+    /**
+     * Returns the matrix in compressed sparse row form, for algorithms that walk rows (Gauss-Seidel, ILU(0)).
+     *
+     * @return SparseDoubleMatrix.
+     */
+    SparseDoubleMatrix toSparse();
+
+    default double[] getDiagonal() {
+        var diagonal = new double[Math.min(getRows(), getColumns())];
+        for (int i = 0; i < diagonal.length; i++)
+            diagonal[i] = get(i, i);
+        return diagonal;
+    }
+
+    default boolean isSquare() {
+        return getRows() == getColumns();
+    }
+}
@@ -0,0 +1,625 @@
+package caghost.tools;
+
+import java.security.InvalidParameterException;
+import java.util.Arrays;
+
+/**
+ * Eigenvalues and eigenvectors of a square double backed matrix.
+ * <p>
+ * Symmetric matrices take the fast path, Householder reduction to tridiagonal form followed by the implicit QL
+ * algorithm, which also accumulates an orthonormal set of eigenvectors. Any other matrix is reduced to upper
+ * Hessenberg form and brought to real Schur form by the shifted (Francis double shift) QR algorithm, accumulating the
+ * transformations. Its eigenvectors are found by back substitution on the Schur form and transformed back, O(n^3)
+ * like the symmetric path.
+ * <p>
+ * Eigenvalues are sorted by real part, largest first. The eigenvector of a real eigenvalue is column j of
+ * getEigenvectors(), for a complex pair a + bi, a - bi at j, j + 1 the columns j and j + 1 hold the real and
+ * imaginary part of the eigenvector of a + bi. Eigenvectors have unit length.
+ * <p>
+ * Every column satisfies A V = V diag(eigenvalues) up to rounding, also for a defective matrix (a repeated eigenvalue
+ * with fewer independent eigenvectors than copies, e.g. [[1, 1], [0, 1]]). There the missing eigenvectors are not made
+ * up, the columns of such an eigenvalue repeat its eigenvector and getEigenvectors() is singular up to rounding.
+ * Based on the EISPACK routines tred2, tql2, orthes and hqr2.
+ */
+public final class EigenDecomposition {
+
+    private static final double EPSILON = Math.ulp(1.0);
+    private static final int MAX_ITERATIONS = 30;
+
+    private final int n;
+    private final boolean symmetric;
+    private final double[] real, imaginary;
+    private final double[][] vectors;
+
+    public EigenDecomposition(DoubleMatrix A) {
+        if (!A.isSquare())
+            throw new InvalidParameterException("Not square");
+        n = A.getRows();
+        var values = DenseDoubleMatrix.of(A).clone().getValues();
+        symmetric = isSymmetric(values);
+        real = new double[n];
+        imaginary = new double[n];
+        if (symmetric) {
+            vectors = values;
+            var e = new double[n];
+            tridiagonalise(vectors, real, e);
+            tql2(real, e, vectors);
+            sortSymmetric();
+        } else {
+            vectors = new double[n][n];
+            hessenberg(values, vectors);
+            hqr2(values, vectors, real, imaginary);
+            for (int j = 0; j < n; j++) {
+                boolean complex = imaginary[j] != 0;
+                normalise(vectors, j, complex ? 2 : 1);
+                if (complex)
+                    j++;
+            }
+            sortGeneral();
+        }
+    }
+
+    public boolean isSymmetric() {
+        return symmetric;
+    }
+
+    public double[] getRealEigenvalues() {
+        return real.clone();
+    }
+
+    public double[] getImaginaryEigenvalues() {
+        return imaginary.clone();
+    }
+
+    public boolean hasComplexEigenvalues() {
+        for (double b : imaginary) {
+            if (b != 0)
+                return true;
+        }
+        return false;
+    }
+
+    public DenseDoubleMatrix getEigenvectors() {
+        return new DenseDoubleMatrix(vectors).clone();
+    }
+
+    private static boolean isSymmetric(double[][] A) {
+        for (int i = 0; i < A.length; i++) {
+            for (int j = 0; j < i; j++) {
+                if (A[i][j] != A[j][i])
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Householder reduction to upper Hessenberg form, H = Q^T A Q. Q is accumulated into V.
+     */
+    private static void hessenberg(double[][] H, double[][] V) {
+        int n = H.length;
+        for (int i = 0; i < n; i++)
+            V[i][i] = 1;
+        var v = new double[n];
+        for (int k = 0; k < n - 2; k++) {
+            double norm = 0;
+            for (int i = k + 1; i < n; i++)
+                norm = Math.hypot(norm, H[i][k]);
+            if (norm == 0)
+                continue;
+            double alpha = H[k + 1][k] > 0 ? -norm : norm, length = 0;
+            for (int i = k + 1; i < n; i++) {
+                v[i] = H[i][k];
+                length += v[i] * v[i];
+            }
+            v[k + 1] -= alpha;
+            length += v[k + 1] * v[k + 1] - H[k + 1][k] * H[k + 1][k];
+            for (int j = k; j < n; j++) { //H = (I - 2vv^T / v^Tv) H
+                double dot = 0;
+                for (int i = k + 1; i < n; i++)
+                    dot += v[i] * H[i][j];
+                dot = 2 * dot / length;
+                for (int i = k + 1; i < n; i++)
+                    H[i][j] -= dot * v[i];
+            }
+            for (var M : new double[][][]{H, V}) { //H = H (I - 2vv^T / v^Tv), same for V
+                for (int i = 0; i < n; i++) {
+                    double dot = 0;
+                    for (int j = k + 1; j < n; j++)
+                        dot += M[i][j] * v[j];
+                    dot = 2 * dot / length;
+                    for (int j = k + 1; j < n; j++)
+                        M[i][j] -= dot * v[j];
+                }
+            }
+            for (int i = k + 2; i < n; i++)
+                H[i][k] = 0;
+        }
+    }
+
+    /**
+     * Shifted QR algorithm on an upper Hessenberg matrix. H is reduced to real Schur form with the transformations
+     * accumulated into V, then the eigenvectors of the Schur form are found by back substitution and V is overwritten
+     * with the eigenvectors of the original matrix, unnormalised. A complex pair is stored with the positive imaginary
+     * part first.
+     */
+    private static void hqr2(double[][] H, double[][] V, double[] wr, double[] wi) {
+        int n = H.length, nn = n - 1, l;
+        double anorm = 0, t = 0, p = 0, q = 0, r = 0, s = 0, w, x, y, z = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = Math.max(i - 1, 0); j < n; j++)
+                anorm += Math.abs(H[i][j]);
+        }
+        int iterations = 0;
+        while (nn >= 0) {
+            for (l = nn; l >= 1; l--) { //look for a small subdiagonal element to split the matrix
+                s = Math.abs(H[l - 1][l - 1]) + Math.abs(H[l][l]);
+                if (s == 0)
+                    s = anorm;
+                if (Math.abs(H[l][l - 1]) + s == s) {
+                    H[l][l - 1] = 0;
+                    break;
+                }
+            }
+            if (l == nn) { //one root found
+                H[nn][nn] += t;
+                wr[nn] = H[nn][nn];
+                wi[nn--] = 0;
+                iterations = 0;
+            } else if (l == nn - 1) { //two roots found
+                w = H[nn][nn - 1] * H[nn - 1][nn];
+                p = 0.5 * (H[nn - 1][nn - 1] - H[nn][nn]);
+                q = p * p + w;
+                z = Math.sqrt(Math.abs(q));
+                H[nn][nn] += t;
+                H[nn - 1][nn - 1] += t;
+                x = H[nn][nn];
+                if (q >= 0) { //real pair, a rotation makes the block upper triangular
+                    z = p + Math.copySign(z, p);
+                    wr[nn - 1] = wr[nn] = x + z;
+                    if (z != 0)
+                        wr[nn] = x - w / z;
+                    wi[nn - 1] = wi[nn] = 0;
+                    x = H[nn][nn - 1];
+                    s = Math.abs(x) + Math.abs(z);
+                    p = x / s;
+                    q = z / s;
+                    r = Math.hypot(p, q);
+                    p /= r;
+                    q /= r;
+                    for (int j = nn - 1; j < n; j++) {
+                        z = H[nn - 1][j];
+                        H[nn - 1][j] = q * z + p * H[nn][j];
+                        H[nn][j] = q * H[nn][j] - p * z;
+                    }
+                    for (var M : new double[][][]{H, V}) {
+                        for (int i = 0; i <= (M == H ? nn : n - 1); i++) {
+                            z = M[i][nn - 1];
+                            M[i][nn - 1] = q * z + p * M[i][nn];
+                            M[i][nn] = q * M[i][nn] - p * z;
+                        }
+                    }
+                } else {
+                    wr[nn - 1] = wr[nn] = x + p;
+                    wi[nn - 1] = z;
+                    wi[nn] = -z;
+                }
+                nn -= 2;
+                iterations = 0;
+            } else {
+                if (iterations == MAX_ITERATIONS)
+                    throw new ArithmeticException("QR iteration did not converge");
+                x = H[nn][nn];
+                y = H[nn - 1][nn - 1];
+                w = H[nn][nn - 1] * H[nn - 1][nn];
+                if (iterations == 10 || iterations == 20) { //exceptional shift
+                    t += x;
+                    for (int i = 0; i <= nn; i++)
+                        H[i][i] -= x;
+                    s = Math.abs(H[nn][nn - 1]) + Math.abs(H[nn - 1][nn - 2]);
+                    y = x = 0.75 * s;
+                    w = -0.4375 * s * s;
+                }
+                iterations++;
+                int m;
+                for (m = nn - 2; m >= l; m--) { //look for two consecutive small subdiagonal elements
+                    z = H[m][m];
+                    r = x - z;
+                    s = y - z;
+                    p = (r * s - w) / H[m + 1][m] + H[m][m + 1];
+                    q = H[m + 1][m + 1] - z - r - s;
+                    r = H[m + 2][m + 1];
+                    s = Math.abs(p) + Math.abs(q) + Math.abs(r);
+                    p /= s;
+                    q /= s;
+                    r /= s;
+                    if (m == l)
+                        break;
+                    double u = Math.abs(H[m][m - 1]) * (Math.abs(q) + Math.abs(r));
+                    double v = Math.abs(p) * (Math.abs(H[m - 1][m - 1]) + Math.abs(z) + Math.abs(H[m + 1][m + 1]));
+                    if (u + v == v)
+                        break;
+                }
+                for (int i = m + 2; i <= nn; i++) {
+                    H[i][i - 2] = 0;
+                    if (i != m + 2)
+                        H[i][i - 3] = 0;
+                }
+                for (int k = m; k <= nn - 1; k++) { //double shift QR step on rows l to nn and columns m to nn
+                    boolean last = k == nn - 1;
+                    if (k != m) {
+                        p = H[k][k - 1];
+                        q = H[k + 1][k - 1];
+                        r = last ? 0 : H[k + 2][k - 1];
+                        if ((x = Math.abs(p) + Math.abs(q) + Math.abs(r)) == 0)
+                            continue;
+                        p /= x;
+                        q /= x;
+                        r /= x;
+                    }
+                    if ((s = Math.copySign(Math.sqrt(p * p + q * q + r * r), p)) == 0)
+                        continue;
+                    if (k == m) {
+                        if (l != m)
+                            H[k][k - 1] = -H[k][k - 1];
+                    } else
+                        H[k][k - 1] = -s * x;
+                    p += s;
+                    x = p / s;
+                    y = q / s;
+                    z = r / s;
+                    q /= p;
+                    r /= p;
+                    for (int j = k; j < n; j++) { //the whole row, not just the active block, to keep the Schur form
+                        p = H[k][j] + q * H[k + 1][j];
+                        if (!last) {
+                            p += r * H[k + 2][j];
+                            H[k + 2][j] -= p * z;
+                        }
+                        H[k + 1][j] -= p * y;
+                        H[k][j] -= p * x;
+                    }
+                    for (var M : new double[][][]{H, V}) {
+                        for (int i = 0; i <= (M == H ? Math.min(nn, k + 3) : n - 1); i++) {
+                            p = x * M[i][k] + y * M[i][k + 1];
+                            if (!last) {
+                                p += z * M[i][k + 2];
+                                M[i][k + 2] -= p * r;
+                            }
+                            M[i][k + 1] -= p * q;
+                            M[i][k] -= p;
+                        }
+                    }
+                }
+            }
+        }
+        if (anorm == 0)
+            return; //the zero matrix, V is still the identity
+        for (nn = n - 1; nn >= 0; nn--) { //back substitution, eigenvectors of the Schur form
+            p = wr[nn];
+            q = wi[nn];
+            if (q == 0) {
+                l = nn;
+                H[nn][nn] = 1;
+                for (int i = nn - 1; i >= 0; i--) {
+                    w = H[i][i] - p;
+                    r = 0;
+                    for (int j = l; j <= nn; j++)
+                        r += H[i][j] * H[j][nn];
+                    if (wi[i] < 0) {
+                        z = w;
+                        s = r;
+                        continue;
+                    }
+                    l = i;
+                    if (wi[i] == 0) //a zero w means a repeated eigenvalue, for a defective one the result is nearly parallel
+                        H[i][nn] = -r / (w != 0 ? w : EPSILON * anorm);
+                    else { //2 by 2 block of a complex pair
+                        x = H[i][i + 1];
+                        y = H[i + 1][i];
+                        q = (wr[i] - p) * (wr[i] - p) + wi[i] * wi[i];
+                        t = (x * s - z * r) / q;
+                        H[i][nn] = t;
+                        H[i + 1][nn] = Math.abs(x) > Math.abs(z) ? (-r - w * t) / x : (-s - y * t) / z;
+                    }
+                    t = Math.abs(H[i][nn]);
+                    if (EPSILON * t * t > 1) { //overflow control
+                        for (int j = i; j <= nn; j++)
+                            H[j][nn] /= t;
+                    }
+                }
+            } else if (q < 0) { //second of a complex pair, real part goes to column nn - 1 and imaginary part to nn
+                l = nn - 1;
+                if (Math.abs(H[nn][nn - 1]) > Math.abs(H[nn - 1][nn])) {
+                    H[nn - 1][nn - 1] = q / H[nn][nn - 1];
+                    H[nn - 1][nn] = -(H[nn][nn] - p) / H[nn][nn - 1];
+                } else {
+                    var c = divide(0, -H[nn - 1][nn], H[nn - 1][nn - 1] - p, q);
+                    H[nn - 1][nn - 1] = c[0];
+                    H[nn - 1][nn] = c[1];
+                }
+                H[nn][nn - 1] = 0;
+                H[nn][nn] = 1;
+                for (int i = nn - 2; i >= 0; i--) {
+                    double ra = 0, sa = 0;
+                    for (int j = l; j <= nn; j++) {
+                        ra += H[i][j] * H[j][nn - 1];
+                        sa += H[i][j] * H[j][nn];
+                    }
+                    w = H[i][i] - p;
+                    if (wi[i] < 0) {
+                        z = w;
+                        r = ra;
+                        s = sa;
+                        continue;
+                    }
+                    l = i;
+                    if (wi[i] == 0) {
+                        var c = divide(-ra, -sa, w, q);
+                        H[i][nn - 1] = c[0];
+                        H[i][nn] = c[1];
+                    } else {
+                        x = H[i][i + 1];
+                        y = H[i + 1][i];
+                        double vr = (wr[i] - p) * (wr[i] - p) + wi[i] * wi[i] - q * q, vi = (wr[i] - p) * 2 * q;
+                        if (vr == 0 && vi == 0)
+                            vr = EPSILON * anorm * (Math.abs(w) + Math.abs(q) + Math.abs(x) + Math.abs(y) + Math.abs(z));
+                        var c = divide(x * r - z * ra + q * sa, x * s - z * sa - q * ra, vr, vi);
+                        H[i][nn - 1] = c[0];
+                        H[i][nn] = c[1];
+                        if (Math.abs(x) > Math.abs(z) + Math.abs(q)) {
+                            H[i + 1][nn - 1] = (-ra - w * H[i][nn - 1] + q * H[i][nn]) / x;
+                            H[i + 1][nn] = (-sa - w * H[i][nn] - q * H[i][nn - 1]) / x;
+                        } else {
+                            c = divide(-r - y * H[i][nn - 1], -s - y * H[i][nn], z, q);
+                            H[i + 1][nn - 1] = c[0];
+                            H[i + 1][nn] = c[1];
+                        }
+                    }
+                    t = Math.max(Math.abs(H[i][nn - 1]), Math.abs(H[i][nn]));
+                    if (EPSILON * t * t > 1) {
+                        for (int j = i; j <= nn; j++) {
+                            H[j][nn - 1] /= t;
+                            H[j][nn] /= t;
+                        }
+                    }
+                }
+            }
+        }
+        var row = new double[n];
+        for (var Vi : V) { //back transformation, V = V X with X the upper triangular eigenvectors of the Schur form
+            Arrays.fill(row, 0);
+            for (int k = 0; k < n; k++) {
+                for (int j = k; j < n; j++)
+                    row[j] += Vi[k] * H[k][j];
+            }
+            System.arraycopy(row, 0, Vi, 0, n);
+        }
+    }
+
+    /**
+     * Complex division (xr + xi i) / (yr + yi i), avoiding overflow.
+     */
+    private static double[] divide(double xr, double xi, double yr, double yi) {
+        double r, d;
+        if (Math.abs(yr) > Math.abs(yi)) {
+            r = yi / yr;
+            d = yr + r * yi;
+            return new double[]{(xr + r * xi) / d, (xi - r * xr) / d};
+        }
+        r = yr / yi;
+        d = yi + r * yr;
+        return new double[]{(r * xr + xi) / d, (r * xi - xr) / d};
+    }
+
+    /**
+     * Householder reduction of a symmetric matrix to tridiagonal form. On return V holds the orthogonal
+     * transformation, d the diagonal and e the subdiagonal in e[1..n-1].
+     */
+    static void tridiagonalise(double[][] V, double[] d, double[] e) {
+        int n = d.length;
+        System.arraycopy(V[n - 1], 0, d, 0, n);
+        for (int i = n - 1; i > 0; i--) {
+            double scale = 0, h = 0;
+            for (int k = 0; k < i; k++)
+                scale += Math.abs(d[k]);
+            if (scale == 0) {
+                e[i] = d[i - 1];
+                for (int j = 0; j < i; j++) {
+                    d[j] = V[i - 1][j];
+                    V[i][j] = 0;
+                    V[j][i] = 0;
+                }
+            } else {
+                for (int k = 0; k < i; k++) { //generate the Householder vector
+                    d[k] /= scale;
+                    h += d[k] * d[k];
+                }
+                double f = d[i - 1], g = Math.sqrt(h);
+                if (f > 0)
+                    g = -g;
+                e[i] = scale * g;
+                h -= f * g;
+                d[i - 1] = f - g;
+                for (int j = 0; j < i; j++)
+                    e[j] = 0;
+                for (int j = 0; j < i; j++) { //apply the similarity transformation to the remaining columns
+                    f = d[j];
+                    V[j][i] = f;
+                    g = e[j] + V[j][j] * f;
+                    for (int k = j + 1; k <= i - 1; k++) {
+                        g += V[k][j] * d[k];
+                        e[k] += V[k][j] * f;
+                    }
+                    e[j] = g;
+                }
+                f = 0;
+                for (int j = 0; j < i; j++) {
+                    e[j] /= h;
+                    f += e[j] * d[j];
+                }
+                double hh = f / (h + h);
+                for (int j = 0; j < i; j++)
+                    e[j] -= hh * d[j];
+                for (int j = 0; j < i; j++) {
+                    f = d[j];
+                    g = e[j];
+                    for (int k = j; k <= i - 1; k++)
+                        V[k][j] -= f * e[k] + g * d[k];
+                    d[j] = V[i - 1][j];
+                    V[i][j] = 0;
+                }
+            }
+            d[i] = h;
+        }
+        for (int i = 0; i < n - 1; i++) { //accumulate the transformations
+            V[n - 1][i] = V[i][i];
+            V[i][i] = 1;
+            double h = d[i + 1];
+            if (h != 0) {
+                for (int k = 0; k <= i; k++)
+                    d[k] = V[k][i + 1] / h;
+                for (int j = 0; j <= i; j++) {
+                    double g = 0;
+                    for (int k = 0; k <= i; k++)
+                        g += V[k][i + 1] * V[k][j];
+                    for (int k = 0; k <= i; k++)
+                        V[k][j] -= g * d[k];
+                }
+            }
+            for (int k = 0; k <= i; k++)
+                V[k][i + 1] = 0;
+        }
+        for (int j = 0; j < n; j++) {
+            d[j] = V[n - 1][j];
+            V[n - 1][j] = 0;
+        }
+        V[n - 1][n - 1] = 1;
+        e[0] = 0;
+    }
+
+    /**
+     * Implicit QL on a symmetric tridiagonal matrix with diagonal d and subdiagonal e[1..n-1]. The eigenvalues end up
+     * in d (unsorted) and the rotations are applied to the columns of V, which should start as the identity or as the
+     * transformation from tridiagonalise.
+     */
+    static void tql2(double[] d, double[] e, double[][] V) {
+        int n = d.length;
+        for (int i = 1; i < n; i++)
+            e[i - 1] = e[i];
+        e[n - 1] = 0;
+        double f = 0, tst1 = 0;
+        for (int l = 0; l < n; l++) {
+            tst1 = Math.max(tst1, Math.abs(d[l]) + Math.abs(e[l]));
+            int m = l;
+            while (m < n - 1 && Math.abs(e[m]) > EPSILON * tst1)
+                m++;
+            if (m > l) {
+                int iterations = 0;
+                do {
+                    if (iterations++ == MAX_ITERATIONS)
+                        throw new ArithmeticException("QL iteration did not converge");
+                    double g = d[l]; //compute the implicit shift
+                    double p = (d[l + 1] - g) / (2 * e[l]);
+                    double r = Math.hypot(p, 1);
+                    if (p < 0)
+                        r = -r;
+                    d[l] = e[l] / (p + r);
+                    d[l + 1] = e[l] * (p + r);
+                    double dl1 = d[l + 1], h = g - d[l];
+                    for (int i = l + 2; i < n; i++)
+                        d[i] -= h;
+                    f += h;
+                    p = d[m];
+                    double c = 1, c2 = c, c3 = c, el1 = e[l + 1], s = 0, s2 = 0;
+                    for (int i = m - 1; i >= l; i--) {
+                        c3 = c2;
+                        c2 = c;
+                        s2 = s;
+                        g = c * e[i];
+                        h = c * p;
+                        r = Math.hypot(p, e[i]);
+                        e[i + 1] = s * r;
+                        s = e[i] / r;
+                        c = p / r;
+                        p = c * d[i] - s * g;
+                        d[i + 1] = h + s * (c * g + s * d[i]);
+                        for (double[] row : V) {
+                            h = row[i + 1];
+                            row[i + 1] = s * row[i] + c * h;
+                            row[i] = c * row[i] - s * h;
+                        }
+                    }
+                    p = -s * s2 * c3 * el1 * e[l] / dl1;
+                    e[l] = s * p;
+                    d[l] = c * p;
+                } while (Math.abs(e[l]) > EPSILON * tst1);
+            }
+            d[l] += f;
+            e[l] = 0;
+        }
+    }
+
+    private void sortSymmetric() {
+        for (int i = 0; i < n - 1; i++) { //selection sort, swapping the eigenvector columns along
+            int largest = i;
+            for (int j = i + 1; j < n; j++) {
+                if (real[j] > real[largest])
+                    largest = j;
+            }
+            if (largest != i) {
+                double temp = real[i];
+                real[i] = real[largest];
+                real[largest] = temp;
+                for (double[] row : vectors) {
+                    temp = row[i];
+                    row[i] = row[largest];
+                    row[largest] = temp;
+                }
+            }
+        }
+    }
+
+    private void sortGeneral() { //conjugate pairs stay together, positive imaginary part first
+        var order = new Integer[n];
+        for (int i = 0; i < n; i++)
+            order[i] = i;
+        Arrays.sort(order, (i, j) -> {
+            if (real[i] != real[j])
+                return Double.compare(real[j], real[i]);
+            return Double.compare(Math.abs(imaginary[j]), Math.abs(imaginary[i])); //stable, hqr2 puts a + bi before a - bi
+        });
+        var sortedReal = new double[n];
+        var sortedImaginary = new double[n];
+        for (int i = 0; i < n; i++) {
+            sortedReal[i] = real[order[i]];
+            sortedImaginary[i] = imaginary[order[i]];
+        }
+        System.arraycopy(sortedReal, 0, real, 0, n);
+        System.arraycopy(sortedImaginary, 0, imaginary, 0, n);
+        var sorted = new double[n];
+        for (double[] row : vectors) {
+            for (int i = 0; i < n; i++)
+                sorted[i] = row[order[i]];
+            System.arraycopy(sorted, 0, row, 0, n);
+        }
+    }
+
+    /**
+     * Scales columns [column, column + count) to unit length together, with the largest real component positive.
+     */
+    private static void normalise(double[][] V, int column, int count) {
+        double length = 0, largest = 0;
+        for (double[] row : V) {
+            for (int c = column; c < column + count; c++)
+                length += row[c] * row[c];
+            if (Math.abs(row[column]) > Math.abs(largest))
+                largest = row[column];
+        }
+        length = Math.sqrt(length) * (largest < 0 ? -1 : 1);
+        for (double[] row : V) {
+            for (int c = column; c < column + count; c++)
+                row[c] /= length;
+        }
+    }
+}
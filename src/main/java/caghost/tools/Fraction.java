@@ -11,6 +11,7 @@ public final class Fraction extends Number implements Comparable<Fraction> {
     private final int numerator, denominator;
     private int hashCode = 0;
     public static final Fraction ONE = new Fraction(1), ZERO = new Fraction(0);
+    private static final int MAX_DIGITS = 18; //anything shorter fits in a long
 
     public Fraction(int numerator) {
         this.numerator = numerator;
@@ -67,7 +68,7 @@ public final class Fraction extends Number implements Comparable<Fraction> {
 
     @Override
     public int compareTo(Fraction f) {
-        return numerator * f.denominator - f.numerator * denominator;
+        return Long.compare((long) numerator * f.denominator, (long) f.numerator * denominator);
     }
 
     @Override
@@ -91,12 +92,108 @@ public final class Fraction extends Number implements Comparable<Fraction> {
     }
 
     public static Fraction convertString(String s) {
-        if (s.matches("\\d+"))
-            return new Fraction(Integer.parseInt(s));
-        else if (s.matches("\\d+/\\d+")) {
-            String[] f = s.split("/");
-            return new Fraction(Integer.parseInt(f[0]), Integer.parseInt(f[1]));
-        } else throw new InvalidParameterException("Inconvertible String");
+        return parse(s, 0, s.length());
+    }
+
+    /**
+     * Parses s[start, end) without regexes or substrings. Accepts integers, a/b and decimals, optionally signed
+     * (-3, +3, -3/4, 2.5, -.125). Decimals are converted exactly, 0.125 becomes 1/8. Leading zeros and trailing zeros
+     * of decimals don't count towards MAX_DIGITS.
+     */
+    public static Fraction parse(CharSequence s, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (s.charAt(i) == '-' || s.charAt(i) == '+'))
+            negative = s.charAt(i++) == '-';
+        long numerator = 0, denominator = 1;
+        int digits = 0, significant = 0, places = 0;
+        for (; i < end && isDigit(s.charAt(i)); i++, digits++) {
+            numerator = numerator * 10 + (s.charAt(i) - '0');
+            significant += numerator != 0 ? 1 : 0;
+        }
+        if (i < end && s.charAt(i) == '.') {
+            int zeros = 0; //held back until a nonzero digit follows, trailing zeros don't change the value
+            for (i++; i < end && isDigit(s.charAt(i)); i++, digits++) {
+                if (s.charAt(i) == '0') {
+                    zeros++;
+                    continue;
+                }
+                for (; zeros > 0; zeros--, places++) {
+                    numerator *= 10;
+                    denominator *= 10;
+                    significant += numerator != 0 ? 1 : 0;
+                }
+                numerator = numerator * 10 + (s.charAt(i) - '0');
+                denominator *= 10;
+                places++;
+                significant++;
+            }
+        } else if (i < end && s.charAt(i) == '/' && digits > 0) {
+            denominator = 0;
+            int denominatorDigits = 0, denominatorSignificant = 0;
+            for (i++; i < end && isDigit(s.charAt(i)); i++, denominatorDigits++) {
+                denominator = denominator * 10 + (s.charAt(i) - '0');
+                denominatorSignificant += denominator != 0 ? 1 : 0;
+            }
+            if (denominatorDigits == 0)
+                throw new InvalidParameterException("Inconvertible String");
+            if (denominatorSignificant > MAX_DIGITS)
+                throw new InvalidParameterException("Out of range");
+        }
+        if (i != end || digits == 0)
+            throw new InvalidParameterException("Inconvertible String");
+        if (significant > MAX_DIGITS || places > MAX_DIGITS)
+            throw new InvalidParameterException("Out of range");
+        return valueOf(negative ? -numerator : numerator, denominator);
+    }
+
+    private static final int MAX_APPROXIMATION_DENOMINATOR = 10000;
+
+    /**
+     * Closest fraction to value with a denominator of at most 10000, found by continued fractions.
+     * Used to bring results computed in doubles (eigenvalues etc.) back into fractions. Further arithmetic on such
+     * results grows the denominators quickly, once they no longer fit an int it throws ArithmeticException.
+     */
+    public static Fraction approximate(double value) {
+        if (Double.isNaN(value) || Math.abs(value) >= Integer.MAX_VALUE)
+            throw new InvalidParameterException("Out of range");
+        long previousNumerator = 0, previousDenominator = 1, numerator = 1, denominator = 0;
+        double x = value;
+        while (true) {
+            long a = (long) Math.floor(x);
+            long nextNumerator = a * numerator + previousNumerator, nextDenominator = a * denominator + previousDenominator;
+            if (nextDenominator > MAX_APPROXIMATION_DENOMINATOR || Math.abs(nextNumerator) > Integer.MAX_VALUE)
+                break;
+            previousNumerator = numerator;
+            previousDenominator = denominator;
+            numerator = nextNumerator;
+            denominator = nextDenominator;
+            double remainder = x - a;
+            if (remainder < 1e-9 || Math.abs(value - (double) numerator / denominator) < 1e-12)
+                break;
+            x = 1 / remainder;
+        }
+        return valueOf(numerator, denominator);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /*
+     * Reduces in long arithmetic first, so values like 0.125 = 125/1000 that only fit an int once simplified are accepted.
+     */
+    private static Fraction valueOf(long numerator, long denominator) {
+        if (denominator == 0)
+            return new Fraction(Long.signum(numerator), 0);
+        long gcd = greatestCommonDivisor(numerator, denominator);
+        numerator /= gcd;
+        denominator /= gcd;
+        if (numerator != (int) numerator || denominator != (int) denominator)
+            throw new InvalidParameterException("Out of range");
+        if (denominator == 1 && (numerator == 0 || numerator == 1))
+            return numerator == 0 ? ZERO : ONE;
+        return new Fraction((int) numerator, (int) denominator);
     }
 
     @Override
@@ -145,34 +242,45 @@ public final class Fraction extends Number implements Comparable<Fraction> {
     public Fraction add(Fraction f) {
         if (f == null)
             throw new InvalidParameterException("Null fraction");
-        int numerator = this.numerator * f.denominator + f.numerator * this.denominator;
-        int denominator = this.denominator * f.denominator;
-        if (numerator == 0)
-            return new Fraction(0);
-        return new Fraction(numerator, denominator);
+        return reduce(Math.addExact((long) numerator * f.denominator, (long) f.numerator * denominator), (long) denominator * f.denominator);
     }
 
     public Fraction subtract(Fraction f) {
         if (f == null)
             throw new InvalidParameterException("Null fraction");
-        int numerator = this.numerator * f.denominator - f.numerator * this.denominator;
-        int denominator = this.denominator * f.denominator;
-        if (numerator == 0)
-            return new Fraction(0);
-        return new Fraction(numerator, denominator);
+        return reduce(Math.subtractExact((long) numerator * f.denominator, (long) f.numerator * denominator), (long) denominator * f.denominator);
     }
 
     public Fraction multiply(Fraction f) {
-        int numerator = this.numerator * f.numerator;
-        int denominator = this.denominator * f.denominator;
-        if (numerator == 0)
-            return new Fraction(0);
-        return new Fraction(numerator, denominator);
+        return reduce((long) numerator * f.numerator, (long) denominator * f.denominator);
     }
 
     public Fraction divide(Fraction f) {
         return this.multiply(Fraction.reciprocal(f));
     }
+
+    /*
+     * Results of the arithmetic above are computed in long and reduced before they are narrowed to int, so only a result
+     * that really doesn't fit overflows, and that throws instead of wrapping around. The denominator is positive.
+     */
+    private static Fraction reduce(long numerator, long denominator) {
+        long gcd = greatestCommonDivisor(numerator, denominator);
+        numerator /= gcd;
+        denominator /= gcd;
+        if (numerator != (int) numerator || denominator != (int) denominator)
+            throw new ArithmeticException("Integer overflow");
+        return new Fraction((int) numerator, (int) denominator);
+    }
+
+    private static long greatestCommonDivisor(long a, long b) {
+        a = Math.abs(a);
+        while (b != 0) {
+            long temp = a;
+            a = b;
+            b = temp % b;
+        }
+        return a;
+    }
 }
 
 
@@ -0,0 +1,70 @@
+package caghost.tools;
+
+import java.security.InvalidParameterException;
+import java.util.Arrays;
+
+/**
+ * ILU(0). L and U are stored together in a copy of the values of A, L has an implicit unit diagonal.
+ * Fill-in outside the sparsity pattern of A is dropped.
+ */
+final class IncompleteLU implements Preconditioner {
+
+    private final int n;
+    private final int[] rowPointers, columnIndices, diagonal;
+    private final double[] factors;
+
+    IncompleteLU(SparseDoubleMatrix A) {
+        if (!A.isSquare())
+            throw new InvalidParameterException("Not square");
+        n = A.getRows();
+        rowPointers = A.getRowPointers();
+        columnIndices = A.getColumnIndices();
+        factors = A.getStoredValues().clone();
+        diagonal = new int[n];
+        for (int i = 0; i < n; i++) {
+            diagonal[i] = A.indexOf(i, i);
+            if (diagonal[i] < 0)
+                throw new ArithmeticException("Zero on the diagonal at row " + i);
+        }
+        factorise();
+    }
+
+    private void factorise() { //IKJ variant restricted to the stored entries
+        var position = new int[n];
+        Arrays.fill(position, -1);
+        for (int i = 0; i < n; i++) {
+            for (int k = rowPointers[i]; k < rowPointers[i + 1]; k++)
+                position[columnIndices[k]] = k;
+            for (int k = rowPointers[i]; k < diagonal[i]; k++) {
+                int pivotRow = columnIndices[k];
+                double pivot = factors[diagonal[pivotRow]];
+                if (pivot == 0)
+                    throw new ArithmeticException("Zero pivot at row " + pivotRow);
+                double multiplier = factors[k] /= pivot;
+                for (int m = diagonal[pivotRow] + 1; m < rowPointers[pivotRow + 1]; m++) {
+                    int p = position[columnIndices[m]];
+                    if (p >= 0)
+                        factors[p] -= multiplier * factors[m];
+                }
+            }
+            for (int k = rowPointers[i]; k < rowPointers[i + 1]; k++)
+                position[columnIndices[k]] = -1;
+        }
+    }
+
+    @Override
+    public void apply(double[] r, double[] z) {
+        for (int i = 0; i < n; i++) { //forward substitution, Ly = r
+            double sum = r[i];
+            for (int k = rowPointers[i]; k < diagonal[i]; k++)
+                sum -= factors[k] * z[columnIndices[k]];
+            z[i] = sum;
+        }
+        for (int i = n - 1; i >= 0; i--) { //backward substitution, Uz = y
+            double sum = z[i];
+            for (int k = diagonal[i] + 1; k < rowPointers[i + 1]; k++)
+                sum -= factors[k] * z[columnIndices[k]];
+            z[i] = sum / factors[diagonal[i]];
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package caghost.tools;
+
+import java.security.InvalidParameterException;
+import java.util.Arrays;
+
+/**
+ * Solves Ax = b iteratively on a double backed matrix. Unlike Matrix.rowEchelon every iteration only needs
+ * matrix-vector products, so a sparse system costs O(non zeros) per iteration instead of an O(n^3) elimination.
+ * <p>
+ * Convergence is measured on the relative residual ||b - Ax|| / ||b||. If it does not drop below the tolerance
+ * within the iteration cap an ArithmeticException is thrown.
+ */
+public final class IterativeSolver {
+
+    public enum Method {JACOBI, GAUSS_SEIDEL, CONJUGATE_GRADIENT, GMRES}
+
+    @FunctionalInterface
+    public interface ResidualListener {
+        void onIteration(int iteration, double relativeResidual);
+    }
+
+    private final Method method;
+    private double tolerance = 1e-10;
+    private int maxIterations = 1000, restart = 30;
+    private Preconditioner preconditioner;
+    private ResidualListener listener = (iteration, residual) -> {
+    };
+
+    private IterativeSolver(Method method) {
+        this.method = method;
+    }
+
+    public static IterativeSolver jacobi() {
+        return new IterativeSolver(Method.JACOBI);
+    }
+
+    public static IterativeSolver gaussSeidel() {
+        return new IterativeSolver(Method.GAUSS_SEIDEL);
+    }
+
+    /**
+     * Conjugate gradient, the matrix has to be symmetric positive definite.
+     */
+    public static IterativeSolver conjugateGradient() {
+        return new IterativeSolver(Method.CONJUGATE_GRADIENT);
+    }
+
+    /**
+     * GMRES restarted every restart iterations, works on any non singular matrix.
+     */
+    public static IterativeSolver gmres(int restart) {
+        if (restart < 1)
+            throw new InvalidParameterException("Restart must be positive");
+        var solver = new IterativeSolver(Method.GMRES);
+        solver.restart = restart;
+        return solver;
+    }
+
+    public IterativeSolver tolerance(double tolerance) {
+        if (!(tolerance > 0))
+            throw new InvalidParameterException("Tolerance must be positive");
+        this.tolerance = tolerance;
+        return this;
+    }
+
+    public IterativeSolver maxIterations(int maxIterations) {
+        if (maxIterations < 1)
+            throw new InvalidParameterException("Iteration cap must be positive");
+        this.maxIterations = maxIterations;
+        return this;
+    }
+
+    /**
+     * Used by conjugate gradient and GMRES. Jacobi and Gauss-Seidel are already diagonally scaled and ignore it.
+     */
+    public IterativeSolver preconditioner(Preconditioner preconditioner) {
+        this.preconditioner = preconditioner;
+        return this;
+    }
+
+    public IterativeSolver onIteration(ResidualListener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    /**
+     * Solves an augmented matrix [A|b], the same form Matrix.rowEchelon expects.
+     *
+     * @param augmented n x (n + 1) matrix.
+     * @return x.
+     */
+    public double[] solve(Matrix augmented) {
+        if (augmented.getColumns() != augmented.getRows() + 1)
+            throw new InvalidParameterException("Improper form, no point solution");
+        var values = DenseDoubleMatrix.of(augmented).getValues();
+        int n = augmented.getRows();
+        var A = new double[n][];
+        var b = new double[n];
+        for (int i = 0; i < n; i++) {
+            A[i] = Arrays.copyOf(values[i], n);
+            b[i] = values[i][n];
+        }
+        return solve(new DenseDoubleMatrix(A), b);
+    }
+
+    public double[] solve(DoubleMatrix A, double[] b) {
+        return solve(A, b, new double[b.length]);
+    }
+
+    /**
+     * @param A  square system matrix.
+     * @param b  right hand side.
+     * @param x0 initial guess, not modified.
+     * @return x.
+     */
+    public double[] solve(DoubleMatrix A, double[] b, double[] x0) {
+        if (!A.isSquare() || A.getRows() != b.length || b.length != x0.length)
+            throw new InvalidParameterException("Dimensions do not match");
+        var x = Arrays.copyOf(x0, x0.length);
+        double bNorm = Vectors.norm(b);
+        if (bNorm == 0) {
+            Arrays.fill(x, 0);
+            return x;
+        }
+        switch (method) {
+            case JACOBI:
+                return jacobi(A.toSparse(), b, x, bNorm);
+            case GAUSS_SEIDEL:
+                return gaussSeidel(A.toSparse(), b, x, bNorm);
+            case CONJUGATE_GRADIENT:
+                return conjugateGradient(A, b, x, bNorm);
+            default:
+                return gmres(A, b, x, bNorm);
+        }
+    }
+
+    /**
+     * The residual of the current iterate falls out of the sweep, so it is checked before the update.
+     */
+    private double[] jacobi(SparseDoubleMatrix A, double[] b, double[] x, double bNorm) {
+        int[] pointers = A.getRowPointers(), columns = A.getColumnIndices();
+        double[] values = A.getStoredValues(), diagonal = nonZeroDiagonal(A), next = new double[x.length];
+        for (int iteration = 0; iteration < maxIterations; iteration++) {
+            double residual = 0;
+            for (int i = 0; i < x.length; i++) {
+                double sum = b[i];
+                for (int k = pointers[i]; k < pointers[i + 1]; k++)
+                    sum -= values[k] * x[columns[k]];
+                residual += sum * sum;
+                next[i] = x[i] + sum / diagonal[i];
+            }
+            residual = Math.sqrt(residual) / bNorm;
+            listener.onIteration(iteration, residual);
+            if (residual <= tolerance)
+                return x;
+            var temp = x;
+            x = next;
+            next = temp;
+        }
+        return notConverged(A, b, x, bNorm);
+    }
+
+    private double[] gaussSeidel(SparseDoubleMatrix A, double[] b, double[] x, double bNorm) {
+        int[] pointers = A.getRowPointers(), columns = A.getColumnIndices();
+        double[] values = A.getStoredValues(), diagonal = nonZeroDiagonal(A), r = new double[x.length];
+        for (int iteration = 0; iteration < maxIterations; iteration++) {
+            for (int i = 0; i < x.length; i++) {
+                double sum = b[i];
+                for (int k = pointers[i]; k < pointers[i + 1]; k++)
+                    sum -= values[k] * x[columns[k]];
+                x[i] += sum / diagonal[i];
+            }
+            double residual = residual(A, b, x, r) / bNorm;
+            listener.onIteration(iteration, residual);
+            if (residual <= tolerance)
+                return x;
+        }
+        return notConverged(A, b, x, bNorm);
+    }
+
+    private double[] conjugateGradient(DoubleMatrix A, double[] b, double[] x, double bNorm) {
+        int n = x.length;
+        var M = preconditioner != null ? preconditioner : Preconditioner.identity();
+        double[] r = new double[n], z = new double[n], p = new double[n], q = new double[n];
+        residual(A, b, x, r);
+        M.apply(r, z);
+        System.arraycopy(z, 0, p, 0, n);
+        double rz = Vectors.dot(r, z);
+        for (int iteration = 0; iteration < maxIterations; iteration++) {
+            double residual = Vectors.norm(r) / bNorm;
+            listener.onIteration(iteration, residual);
+            if (residual <= tolerance)
+                return x;
+            A.multiply(p, q);
+            double pq = Vectors.dot(p, q);
+            if (pq <= 0)
+                throw new ArithmeticException("Matrix is not positive definite");
+            double alpha = rz / pq;
+            for (int i = 0; i < n; i++) {
+                x[i] += alpha * p[i];
+                r[i] -= alpha * q[i];
+            }
+            M.apply(r, z);
+            double previous = rz;
+            rz = Vectors.dot(r, z);
+            double beta = rz / previous;
+            for (int i = 0; i < n; i++)
+                p[i] = z[i] + beta * p[i];
+        }
+        return notConverged(A, b, x, bNorm);
+    }
+
+    /**
+     * Right preconditioned GMRES(m), Arnoldi with modified Gram-Schmidt and Givens rotations on the Hessenberg matrix.
+     * Right preconditioning keeps the monitored residual equal to the true residual.
+     */
+    private double[] gmres(DoubleMatrix A, double[] b, double[] x, double bNorm) {
+        int n = x.length, m = Math.min(restart, n);
+        var M = preconditioner != null ? preconditioner : Preconditioner.identity();
+        double[][] V = new double[m + 1][n], Z = new double[m][n], H = new double[m + 1][m];
+        double[] cs = new double[m], sn = new double[m], g = new double[m + 1], w = new double[n];
+        int iteration = 0;
+        while (iteration < maxIterations) {
+            double beta = residual(A, b, x, V[0]);
+            if (beta / bNorm <= tolerance) {
+                listener.onIteration(iteration, beta / bNorm);
+                return x;
+            }
+            for (int i = 0; i < n; i++)
+                V[0][i] /= beta;
+            Arrays.fill(g, 0);
+            g[0] = beta;
+            int k = 0;
+            boolean converged = false;
+            while (k < m && iteration < maxIterations) {
+                M.apply(V[k], Z[k]);
+                A.multiply(Z[k], w);
+                for (int i = 0; i <= k; i++) {
+                    H[i][k] = Vectors.dot(w, V[i]);
+                    for (int j = 0; j < n; j++)
+                        w[j] -= H[i][k] * V[i][j];
+                }
+                H[k + 1][k] = Vectors.norm(w);
+                for (int i = 0; i < k; i++) {
+                    double temp = cs[i] * H[i][k] + sn[i] * H[i + 1][k];
+                    H[i + 1][k] = -sn[i] * H[i][k] + cs[i] * H[i + 1][k];
+                    H[i][k] = temp;
+                }
+                double r = Math.hypot(H[k][k], H[k + 1][k]);
+                if (r == 0)
+                    throw new ArithmeticException("Matrix is singular");
+                cs[k] = H[k][k] / r;
+                sn[k] = H[k + 1][k] / r;
+                double lucky = H[k + 1][k];
+                H[k][k] = r;
+                H[k + 1][k] = 0;
+                g[k + 1] = -sn[k] * g[k];
+                g[k] *= cs[k];
+                double residual = Math.abs(g[k + 1]) / bNorm;
+                listener.onIteration(iteration++, residual);
+                if (lucky != 0)
+                    for (int j = 0; j < n; j++)
+                        V[k + 1][j] = w[j] / lucky;
+                k++;
+                if (residual <= tolerance || lucky == 0) {
+                    converged = true;
+                    break;
+                }
+            }
+            updateSolution(x, H, g, Z, k);
+            if (converged && residual(A, b, x, w) / bNorm <= tolerance)
+                return x;
+        }
+        return notConverged(A, b, x, bNorm);
+    }
+
+    private static void updateSolution(double[] x, double[][] H, double[] g, double[][] Z, int k) {
+        var y = new double[k];
+        for (int i = k - 1; i >= 0; i--) { //back substitution on the triangularised Hessenberg matrix
+            double sum = g[i];
+            for (int j = i + 1; j < k; j++)
+                sum -= H[i][j] * y[j];
+            y[i] = sum / H[i][i];
+        }
+        for (int i = 0; i < k; i++) {
+            for (int j = 0; j < x.length; j++)
+                x[j] += y[i] * Z[i][j];
+        }
+    }
+
+    private static double[] nonZeroDiagonal(DoubleMatrix A) {
+        var diagonal = A.getDiagonal();
+        for (int i = 0; i < diagonal.length; i++) {
+            if (diagonal[i] == 0)
+                throw new ArithmeticException("Zero on the diagonal at row " + i);
+        }
+        return diagonal;
+    }
+
+    private double[] notConverged(DoubleMatrix A, double[] b, double[] x, double bNorm) {
+        double residual = residual(A, b, x, new double[x.length]) / bNorm;
+        throw new ArithmeticException("Did not converge after " + maxIterations + " iterations, relative residual " + residual);
+    }
+
+    /**
+     * Writes r = b - Ax and returns ||r||.
+     */
+    private static double residual(DoubleMatrix A, double[] b, double[] x, double[] r) {
+        A.multiply(x, r);
+        for (int i = 0; i < r.length; i++)
+            r[i] = b[i] - r[i];
+        return Vectors.norm(r);
+    }
+}
@@ -137,20 +137,47 @@ public class Matrix {
     }
 
     public static Matrix add(Matrix A, Matrix B) {
-        if (sameSize(A, B)) {
-            Fraction[][] values = new Fraction[A.rows][A.columns];
+        return add(A, B, new Matrix(new Fraction[A.rows][A.columns]));
+    }
+
+    /**
+     * Writes A + B into destination, which may be A or B.
+     *
+     * @return destination.
+     */
+    public static Matrix add(Matrix A, Matrix B, Matrix destination) {
+        if (sameSize(A, B) && sameSize(A, destination)) {
             for (int i = 0; i < A.rows; i++) {
                 for (int j = 0; j < A.columns; j++) {
-                    values[i][j] = A.values[i][j].add(B.values[i][j]);
+                    destination.values[i][j] = A.values[i][j].add(B.values[i][j]);
                 }
             }
-            return new Matrix(values);
+            destination.inverse = null;
+            return destination;
         } else
             throw new InvalidParameterException("Cannot be added");
     }
 
     public static Matrix subtract(Matrix A, Matrix B) {
-        return Matrix.add(A, scale(B, -1));
+        return subtract(A, B, new Matrix(new Fraction[A.rows][A.columns]));
+    }
+
+    /**
+     * Writes A - B into destination, which may be A or B.
+     *
+     * @return destination.
+     */
+    public static Matrix subtract(Matrix A, Matrix B, Matrix destination) {
+        if (sameSize(A, B) && sameSize(A, destination)) {
+            for (int i = 0; i < A.rows; i++) {
+                for (int j = 0; j < A.columns; j++) {
+                    destination.values[i][j] = A.values[i][j].subtract(B.values[i][j]);
+                }
+            }
+            destination.inverse = null;
+            return destination;
+        } else
+            throw new InvalidParameterException("Cannot be subtracted");
     }
 
     public static Matrix scale(Matrix A, int constant) {
@@ -158,35 +185,109 @@ public class Matrix {
     }
 
     public static Matrix scale(Matrix A, Fraction constant) {
-        Fraction[][] values = new Fraction[A.rows][A.columns];
+        return scale(A, constant, new Matrix(new Fraction[A.rows][A.columns]));
+    }
+
+    /**
+     * Writes constant * A into destination, which may be A.
+     *
+     * @return destination.
+     */
+    public static Matrix scale(Matrix A, Fraction constant, Matrix destination) {
+        if (!sameSize(A, destination))
+            throw new InvalidParameterException("Cannot be scaled");
         for (int i = 0; i < A.rows; i++) {
             for (int j = 0; j < A.columns; j++) {
-                values[i][j] = A.values[i][j].multiply(constant);
+                destination.values[i][j] = A.values[i][j].multiply(constant);
             }
         }
-        return new Matrix(values);
+        destination.inverse = null;
+        return destination;
     }
 
     public static Matrix multiply(Matrix A, Matrix B) {
+        return multiply(A, B, new Matrix(new Fraction[A.rows][B.columns]));
+    }
+
+    /**
+     * Writes AB into destination. Every entry reads a whole row and column, so destination can't be A or B.
+     *
+     * @return destination.
+     */
+    public static Matrix multiply(Matrix A, Matrix B, Matrix destination) {
         if (A.columns == B.rows) {
-            Fraction[][] values = new Fraction[A.rows][B.columns];
+            if (destination.rows != A.rows || destination.columns != B.columns)
+                throw new InvalidParameterException("Destination has the wrong size");
+            if (destination == A || destination == B)
+                throw new InvalidParameterException("Destination is an operand");
             for (int i = 0; i < A.rows; i++) {
                 for (int j = 0; j < B.columns; j++) {
                     Fraction sum = new Fraction(0);
                     for (int k = 0; k < A.columns; k++)
                         sum = sum.add(A.values[i][k].multiply(B.values[k][j]));
-                    values[i][j] = sum;
+                    destination.values[i][j] = sum;
                 }
             }
-            return new Matrix(values);
+            destination.inverse = null;
+            return destination;
         } else throw new InvalidParameterException("Cannot be multiplied");
     }
 
     public static Matrix pow(Matrix A, int power) {
-        var product = A;
-        for (int i = 1; i < power; i++)
-            product = Matrix.multiply(A, product);
-        return product;
+        if (power <= 1)
+            return A;
+        return pow(A, power, new Matrix(new Fraction[A.rows][A.columns]));
+    }
+
+    /**
+     * Writes A^power into destination, which can't be A. The intermediate products alternate between destination and
+     * one scratch matrix, which is allocated for this call only.
+     *
+     * @return destination.
+     */
+    public static Matrix pow(Matrix A, int power, Matrix destination) {
+        return pow(A, power, destination, new MatrixPool());
+    }
+
+    /**
+     * Same as pow(A, power, destination), but takes the scratch matrix from pool and returns it afterwards, so nothing
+     * is allocated once the pool is warm.
+     *
+     * @return destination.
+     */
+    public static Matrix pow(Matrix A, int power, Matrix destination, MatrixPool pool) {
+        if (destination == A)
+            throw new InvalidParameterException("Destination is an operand");
+        if (power <= 1)
+            return copy(A, destination);
+        try (var scope = pool.scope()) {
+            var scratch = scope.acquire(A.rows, A.columns);
+            var product = A;
+            for (int i = 1; i < power; i++) {
+                var target = (power - 1 - i) % 2 == 0 ? destination : scratch; //the last product lands in destination
+                product = Matrix.multiply(A, product, target);
+            }
+        }
+        return destination;
+    }
+
+    /**
+     * Copies the values of A into destination.
+     *
+     * @return destination.
+     */
+    public static Matrix copy(Matrix A, Matrix destination) {
+        if (!sameSize(A, destination))
+            throw new InvalidParameterException("Cannot be copied");
+        if (destination != A)
+            destination.setValues(A.values);
+        return destination;
+    }
+
+    void setValues(Fraction[][] source) { //source has to have the same size
+        for (int i = 0; i < rows; i++)
+            System.arraycopy(source[i], 0, values[i], 0, columns);
+        inverse = null;
     }
 
     public static Matrix rowEchelon(Matrix A) {
@@ -241,10 +342,17 @@ public class Matrix {
         return new Matrix(a);
     }
 
+    /**
+     * Returns a copy of the cached inverse, the "into" operations may write to the returned matrix.
+     *
+     * @return Matrix.
+     */
     public Matrix inverse() {
         if (!isSquare)
             throw new InvalidParameterException("Not square");
-        return (inverse != null) ? inverse : (inverse = reducedRowEchelon(this).inverse);
+        if (inverse == null)
+            inverse = reducedRowEchelon(this).inverse;
+        return inverse.clone();
     }
 
     public static Matrix reducedRowEchelon(Matrix A) {
@@ -270,6 +378,24 @@ public class Matrix {
         return sum;
     }
 
+    /**
+     * Eigenvalues and eigenvectors, computed in doubles.
+     *
+     * @return EigenDecomposition.
+     */
+    public EigenDecomposition eigen() {
+        return new EigenDecomposition(DenseDoubleMatrix.of(this));
+    }
+
+    /**
+     * Singular value decomposition, computed in doubles.
+     *
+     * @return SingularValueDecomposition.
+     */
+    public SingularValueDecomposition svd() {
+        return new SingularValueDecomposition(DenseDoubleMatrix.of(this));
+    }
+
     private void divideRowByLeadingOneConstant(int index, Fraction constant) {
         for (int i = 0; i < columns; i++)
             values[index][i] = values[index][i].divide(constant);
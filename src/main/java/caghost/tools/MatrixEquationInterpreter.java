@@ -7,10 +7,19 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public final class MatrixEquationInterpreter {
+    /**
+     * Number of solve calls after which the expression is compiled, see CompiledExpression.
+     */
+    static final int COMPILE_THRESHOLD = 8;
+
     private final ArrayList<Matrix> matrices;
     private final String expression;
     private final HashMap<String, Matrix> temporaryMatrices = new HashMap<>();
+    private final MatrixPool pool = new MatrixPool();
     private int next = 0;
+    private int invocations = 0;
+    private Matrix[] uncompilable; //matrices the last failed compile ran against
+    private CompiledExpression compiled;
 
     private MatrixEquationInterpreter(ArrayList<Matrix> matrices, String expression) {
         this.matrices = matrices;
@@ -23,7 +32,7 @@ public final class MatrixEquationInterpreter {
     }
 
     private static void expressionValidityCheck(String expression) {
-        if (unequalBrackets(expression) || expression.matches(".*[^ /*)(+^-][^ /*)(+^-].*"))
+        if (unequalBrackets(expression) || expression.replaceAll(MatrixFunction.NAMES, "").matches(".*[^ /*)(+^-][^ /*)(+^-].*"))
             throw new InvalidParameterException("Invalid expression");
     }
 
@@ -38,11 +47,98 @@ public final class MatrixEquationInterpreter {
         return count != 0;
     }
 
+    /**
+     * Interprets the expression. Once it has been solved COMPILE_THRESHOLD times it is compiled and later calls run
+     * the compiled form instead. It is recompiled if the matrix list changes and if the compiler cannot handle the
+     * expression the interpreter keeps being used until the list changes again.
+     *
+     * @return a new matrix with the result, null if the expression has no operation the interpreter can evaluate.
+     */
     public Matrix solve() {
-        return temporaryMatrices.get(convertExpressionToCode(expression));
+        if (isHot())
+            return compiled.evaluate();
+        var result = interpret();
+        return result == null ? null : result.clone();
+    }
+
+    /**
+     * Same as solve, but writes the result into destination. Intermediates are reused between calls, so repeated
+     * calls allocate no matrices.
+     *
+     * @return destination.
+     */
+    public Matrix solveInto(Matrix destination) {
+        if (isHot())
+            return compiled.evaluateInto(destination);
+        var result = interpret();
+        if (result == null)
+            throw new InvalidParameterException("Expression has no operation");
+        return Matrix.copy(result, destination);
+    }
+
+    private boolean isHot() {
+        if (invocations < COMPILE_THRESHOLD)
+            invocations++;
+        if (invocations == COMPILE_THRESHOLD && (compiled == null || !compiled.isCompiledFor(matrices)) && !isUncompilable())
+            compile();
+        return compiled != null;
+    }
+
+    private Matrix interpret() {
+        next = 0; //temporary names only match [A-Z]+\d?, so numbering has to restart on every solve
+        var result = convertExpressionToCode(expression).trim();
+        return result.matches("[A-Z]+\\d?") ? lookup(result) : null; //a single name like A or (A) is that matrix
+    }
+
+    /**
+     * Destination for the next temporary. The matrix stored under the same name by the previous solve is reused
+     * when it has the right size, otherwise one is taken from the pool.
+     */
+    private Matrix temporary(int rows, int columns) {
+        var previous = temporaryMatrices.get("TEMP" + next);
+        if (previous != null && previous.getRows() == rows && previous.getColumns() == columns)
+            return previous;
+        return pool.acquire(rows, columns);
+    }
+
+    /**
+     * Stores the result of a finished operation as the next temporary. The matrix it replaces is released only here,
+     * so an operation that throws never leaves a matrix both mapped and in the pool.
+     */
+    private void store(Matrix result) {
+        var previous = temporaryMatrices.put("TEMP" + next, result);
+        if (previous != null && previous != result)
+            pool.release(previous);
+    }
+
+    private Matrix lookup(String name) {
+        return temporaryMatrices.containsKey(name) ? temporaryMatrices.get(name) : matrices.get(name.charAt(0) - 'A');
+    }
+
+    private void compile() {
+        try {
+            compiled = CompiledExpression.compile(matrices, expression);
+        } catch (InvalidParameterException e) {
+            compiled = null;
+            uncompilable = matrices.toArray(new Matrix[0]);
+        }
+    }
+
+    /**
+     * True if compiling already failed against the current matrices, compared by identity like isCompiledFor.
+     */
+    private boolean isUncompilable() {
+        if (uncompilable == null || uncompilable.length != matrices.size())
+            return false;
+        for (int i = 0; i < uncompilable.length; i++) {
+            if (uncompilable[i] != matrices.get(i))
+                return false;
+        }
+        return true;
     }
 
     private String convertExpressionToCode(String s) {
+        s = functions(s);
         String inner = innerMostExpression(s);
         String solved = add(subtract(multiply(scale(pow(inner)))));
         if (!s.equals(inner))
@@ -52,6 +148,34 @@ public final class MatrixEquationInterpreter {
         return s;
     }
 
+    /**
+     * Replaces every function call by its result, the argument is solved first as an expression of its own.
+     */
+    private String functions(String s) {
+        var call = Pattern.compile("(" + MatrixFunction.NAMES + ")\\s*\\(").matcher(s);
+        if (call.find()) {
+            int end = closingBracket(s, call.end());
+            var m = lookup(convertExpressionToCode(s.substring(call.end(), end)).trim());
+            var function = MatrixFunction.of(call.group(1));
+            var result = temporary(function.rows(m.getRows(), m.getColumns()), function.columns(m.getRows(), m.getColumns()));
+            function.apply(m.getValues(), result.getValues());
+            store(result);
+            return functions(s.substring(0, call.start()) + "TEMP" + next++ + s.substring(end + 1));
+        }
+        return s;
+    }
+
+    private static int closingBracket(String s, int start) {
+        int depth = 1;
+        for (int i = start; i < s.length(); i++) {
+            if (s.charAt(i) == '(')
+                depth++;
+            if (s.charAt(i) == ')' && --depth == 0)
+                return i;
+        }
+        throw new InvalidParameterException("Invalid expression");
+    }
+
     private String pow(String s) {
         return pow(s, Pattern.compile("[A-Z]+\\d?\\s*\\^\\s*\\d+").matcher(s));
     }
@@ -59,7 +183,8 @@ public final class MatrixEquationInterpreter {
     private String pow(String s, Matcher power) {
         if (power.find()) {
             String[] names = power.group().split("\\s*\\^\\s*");
-            temporaryMatrices.put("TEMP" + next, Matrix.pow(temporaryMatrices.containsKey(names[0]) ? temporaryMatrices.get(names[0]) : matrices.get(names[0].charAt(0) - 'A'), names[1].charAt(0) - '0'));
+            var m = lookup(names[0]);
+            store(Matrix.pow(m, names[1].charAt(0) - '0', temporary(m.getRows(), m.getColumns()), pool));
             return pow(s.replace(power.group(), "TEMP" + next++));
         }
         return s;
@@ -72,9 +197,9 @@ public final class MatrixEquationInterpreter {
     private String multiply(String s, Matcher multiplication) {
         if (multiplication.find()) {
             String[] names = multiplication.group().split("\\s*\\*\\s*");
-            var m1 = temporaryMatrices.containsKey(names[0]) ? temporaryMatrices.get(names[0]) : matrices.get(names[0].charAt(0) - 'A');
-            var m2 = temporaryMatrices.containsKey(names[1]) ? temporaryMatrices.get(names[1]) : matrices.get(names[1].charAt(0) - 'A');
-            temporaryMatrices.put("TEMP" + next, Matrix.multiply(m1, m2));
+            var m1 = lookup(names[0]);
+            var m2 = lookup(names[1]);
+            store(Matrix.multiply(m1, m2, temporary(m1.getRows(), m2.getColumns())));
             return multiply(s.replace(multiplication.group(), "TEMP" + next++));
         }
         return s.trim();
@@ -87,10 +212,10 @@ public final class MatrixEquationInterpreter {
     private String scale(String s, Matcher scaling) {
         if (scaling.find()) {
             String[] names = scaling.group().split("\\s*\\*\\s*");
-            if (names[0].matches("\\d+"))
-                temporaryMatrices.put("TEMP" + next, Matrix.scale(temporaryMatrices.containsKey(names[1]) ? temporaryMatrices.get(names[1]) : matrices.get(names[1].charAt(0) - 'A'), names[0].charAt(0) - '0'));
-            else
-                temporaryMatrices.put("TEMP" + next, Matrix.scale(temporaryMatrices.containsKey(names[0]) ? temporaryMatrices.get(names[0]) : matrices.get(names[1].charAt(0) - 'A'), names[1].charAt(0) - '0'));
+            boolean constantFirst = names[0].matches("\\d+");
+            var m = lookup(constantFirst ? names[1] : names[0]);
+            var constant = new Fraction((constantFirst ? names[0] : names[1]).charAt(0) - '0');
+            store(Matrix.scale(m, constant, temporary(m.getRows(), m.getColumns())));
             return scale(s.replace(scaling.group(), "TEMP" + next++));
         }
         return s;
@@ -103,9 +228,9 @@ public final class MatrixEquationInterpreter {
     private String add(String s, Matcher addition) {
         if (addition.find()) {
             String[] names = addition.group().split("\\s*\\+\\s*");
-            Matrix m1 = temporaryMatrices.containsKey(names[0]) ? temporaryMatrices.get(names[0]) : matrices.get(names[0].charAt(0) - 'A');
-            Matrix m2 = temporaryMatrices.containsKey(names[1]) ? temporaryMatrices.get(names[1]) : matrices.get(names[1].charAt(0) - 'A');
-            temporaryMatrices.put("TEMP" + next, Matrix.add(m1, m2));
+            Matrix m1 = lookup(names[0]);
+            Matrix m2 = lookup(names[1]);
+            store(Matrix.add(m1, m2, temporary(m1.getRows(), m1.getColumns())));
             return add(s.replace(addition.group(), "TEMP" + next++));
         }
         return s;
@@ -118,9 +243,9 @@ public final class MatrixEquationInterpreter {
     private String subtract(String s, Matcher subtraction) {
         if (subtraction.find()) {
             String[] names = subtraction.group().split("\\s*-\\s*");
-            Matrix m1 = temporaryMatrices.containsKey(names[0]) ? temporaryMatrices.get(names[0]) : matrices.get(names[0].charAt(0) - 'A');
-            Matrix m2 = temporaryMatrices.containsKey(names[1]) ? temporaryMatrices.get(names[1]) : matrices.get(names[1].charAt(0) - 'A');
-            temporaryMatrices.put("TEMP" + next, Matrix.subtract(m1, m2));
+            Matrix m1 = lookup(names[0]);
+            Matrix m2 = lookup(names[1]);
+            store(Matrix.subtract(m1, m2, temporary(m1.getRows(), m1.getColumns())));
             return subtract(s.replace(subtraction.group(), "TEMP" + next++));
         }
         return s;
@@ -0,0 +1,27 @@
+package caghost.tools;
+
+import java.security.InvalidParameterException;
+
+/**
+ * Thrown by MatrixLoader, carries the 1 based line and column of the offending cell.
+ */
+public class MatrixFormatException extends InvalidParameterException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int line, column;
+
+    public MatrixFormatException(String message, int line, int column) {
+        super("line " + line + ", column " + column + ": " + message);
+        this.line = line;
+        this.column = column;
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public int getColumn() {
+        return column;
+    }
+}
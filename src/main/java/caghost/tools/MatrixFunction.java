@@ -0,0 +1,120 @@
+package caghost.tools;
+
+import java.security.InvalidParameterException;
+
+/**
+ * Functions available in interpreter expressions, e.g. eigenvalues(A*B). They are computed in doubles and the results
+ * are converted back with Fraction.approximate, so they are exact only when the true values are simple fractions.
+ * Their denominators go up to 10000, so further arithmetic on them (e.g. eigenvectors(A)*eigenvectors(A)) can exceed
+ * int and throw ArithmeticException.
+ */
+enum MatrixFunction {
+    /**
+     * Column of the eigenvalues, largest first. Complex eigenvalues can't be represented and are an error.
+     */
+    EIGENVALUES("eigenvalues") {
+        @Override
+        int rows(int rows, int columns) {
+            requireSquare(rows, columns);
+            return rows;
+        }
+
+        @Override
+        int columns(int rows, int columns) {
+            return 1;
+        }
+
+        @Override
+        void apply(Fraction[][] A, Fraction[][] destination) {
+            var eigen = realEigen(A);
+            var values = eigen.getRealEigenvalues();
+            for (int i = 0; i < values.length; i++)
+                destination[i][0] = Fraction.approximate(values[i]);
+        }
+    },
+    /**
+     * Unit eigenvectors as columns, in the order of eigenvalues().
+     */
+    EIGENVECTORS("eigenvectors") {
+        @Override
+        int rows(int rows, int columns) {
+            requireSquare(rows, columns);
+            return rows;
+        }
+
+        @Override
+        int columns(int rows, int columns) {
+            return columns;
+        }
+
+        @Override
+        void apply(Fraction[][] A, Fraction[][] destination) {
+            approximate(realEigen(A).getEigenvectors().getValues(), destination);
+        }
+    },
+    /**
+     * Column of the singular values, largest first.
+     */
+    SINGULARVALUES("singularvalues") {
+        @Override
+        int rows(int rows, int columns) {
+            return Math.min(rows, columns);
+        }
+
+        @Override
+        int columns(int rows, int columns) {
+            return 1;
+        }
+
+        @Override
+        void apply(Fraction[][] A, Fraction[][] destination) {
+            var values = new SingularValueDecomposition(DenseDoubleMatrix.of(A)).getSingularValues();
+            for (int i = 0; i < values.length; i++)
+                destination[i][0] = Fraction.approximate(values[i]);
+        }
+    };
+
+    static final String NAMES = "eigenvalues|eigenvectors|singularvalues";
+
+    private final String name;
+
+    MatrixFunction(String name) {
+        this.name = name;
+    }
+
+    static MatrixFunction of(String name) {
+        for (MatrixFunction function : values()) {
+            if (function.name.equals(name))
+                return function;
+        }
+        throw new InvalidParameterException("Unknown function " + name);
+    }
+
+    abstract int rows(int rows, int columns);
+
+    abstract int columns(int rows, int columns);
+
+    /**
+     * Writes the result into destination, which has to be rows(...) x columns(...).
+     */
+    abstract void apply(Fraction[][] A, Fraction[][] destination);
+
+    private static void requireSquare(int rows, int columns) {
+        if (rows != columns)
+            throw new InvalidParameterException("Not square");
+    }
+
+    private static EigenDecomposition realEigen(Fraction[][] A) {
+        var eigen = new EigenDecomposition(DenseDoubleMatrix.of(A));
+        if (eigen.hasComplexEigenvalues())
+            throw new ArithmeticException("Complex eigenvalues");
+        return eigen;
+    }
+
+    private static void approximate(double[][] values, Fraction[][] destination) {
+        for (int i = 0; i < values.length; i++) {
+            for (int j = 0; j < values[i].length; j++)
+                destination[i][j] = Fraction.approximate(values[i][j]);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package caghost.tools;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.InvalidParameterException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Reads a matrix from text, one row per line. Cells are separated by commas (CSV) or by whitespace,
+ * blank lines are skipped. Every cell is anything Fraction.parse accepts.
+ * <p>
+ * Rows are parsed in parallel chunks. If several cells are malformed the first one in the file is reported.
+ */
+public final class MatrixLoader {
+
+    private static final int CHUNK_ROWS = 64;
+
+    private MatrixLoader() {
+    }
+
+    public static Matrix load(Path path) throws IOException {
+        return parse(Files.readAllLines(path));
+    }
+
+    public static Matrix load(Reader reader) throws IOException {
+        var lines = new ArrayList<String>();
+        var buffered = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        for (String line = buffered.readLine(); line != null; line = buffered.readLine())
+            lines.add(line);
+        return parse(lines);
+    }
+
+    public static Matrix parse(String text) {
+        return parse(text.lines().collect(Collectors.toList()));
+    }
+
+    public static Matrix parse(List<String> lines) {
+        int[] lineNumbers = nonBlankLines(lines);
+        if (lineNumbers.length == 0)
+            throw new InvalidParameterException("Empty matrix");
+        int columns = countCells(lines.get(lineNumbers[0]));
+        var values = new Fraction[lineNumbers.length][];
+        int chunks = (lineNumbers.length + CHUNK_ROWS - 1) / CHUNK_ROWS;
+        var errors = new MatrixFormatException[chunks];
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            try {
+                for (int row = chunk * CHUNK_ROWS; row < Math.min(values.length, (chunk + 1) * CHUNK_ROWS); row++)
+                    values[row] = parseRow(lines.get(lineNumbers[row]), lineNumbers[row] + 1, columns);
+            } catch (MatrixFormatException e) {
+                errors[chunk] = e;
+            }
+        });
+        for (MatrixFormatException e : errors) {
+            if (e != null)
+                throw e;
+        }
+        return new Matrix(values);
+    }
+
+    private static int[] nonBlankLines(List<String> lines) {
+        return IntStream.range(0, lines.size())
+                .filter(i -> !lines.get(i).isBlank())
+                .toArray();
+    }
+
+    private static int countCells(String line) {
+        int count = 0;
+        for (int i = skipSeparators(line, 0, true); i < line.length(); i = skipSeparators(line, cellEnd(line, i), false))
+            count++;
+        return trailingComma(line) < 0 ? count : count + 1;
+    }
+
+    private static Fraction[] parseRow(String line, int lineNumber, int columns) {
+        var row = new Fraction[columns];
+        int column = 0;
+        for (int i = skipSeparators(line, 0, true); i < line.length(); column++) {
+            int end = cellEnd(line, i);
+            if (i == end)
+                throw new MatrixFormatException("empty cell", lineNumber, i + 1);
+            if (column == columns)
+                throw new MatrixFormatException("expected " + columns + " cells, found more", lineNumber, i + 1);
+            try {
+                row[column] = Fraction.parse(line, i, end);
+            } catch (InvalidParameterException | ArithmeticException e) {
+                throw new MatrixFormatException(e.getMessage() + " '" + line.substring(i, end) + "'", lineNumber, i + 1);
+            }
+            i = skipSeparators(line, end, false);
+        }
+        int comma = trailingComma(line);
+        if (comma >= 0)
+            throw new MatrixFormatException("empty cell", lineNumber, comma + 2);
+        if (column != columns)
+            throw new MatrixFormatException("expected " + columns + " cells, found " + column, lineNumber, line.length() + 1);
+        return row;
+    }
+
+    private static int cellEnd(String line, int i) {
+        while (i < line.length() && !isSeparator(line.charAt(i)))
+            i++;
+        return i;
+    }
+
+    /**
+     * Skips whitespace and at most one comma, so "1, 2" and "1 2" both separate two cells but "1,,2" has an empty cell.
+     */
+    private static int skipSeparators(String line, int i, boolean leading) {
+        boolean comma = leading;
+        for (; i < line.length() && isSeparator(line.charAt(i)); i++) {
+            if (line.charAt(i) == ',') {
+                if (comma)
+                    return i;
+                comma = true;
+            }
+        }
+        return i;
+    }
+
+    /**
+     * Index of a comma that ends the line (ignoring whitespace), -1 if there is none. The empty cell after it is an
+     * error like the one in "1,,2".
+     */
+    private static int trailingComma(String line) {
+        int i = line.length() - 1;
+        while (i >= 0 && Character.isWhitespace(line.charAt(i)))
+            i--;
+        return i >= 0 && line.charAt(i) == ',' ? i : -1;
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == ',' || Character.isWhitespace(c);
+    }
+}
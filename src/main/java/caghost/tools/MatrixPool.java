@@ -0,0 +1,104 @@
+package caghost.tools;
+
+import java.security.InvalidParameterException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Keeps released matrices by size so they can be handed out again as destinations for the "into" operations
+ * (Matrix.add(A, B, destination) etc.) instead of allocating a new Fraction[rows][columns] every time.
+ * <p>
+ * An acquired matrix has arbitrary contents. A pool is not thread safe, use local() for the pool of the current thread.
+ * Matrices must not be used after they are released. A pool keeps at most MAX_PER_SIZE matrices of one size and
+ * MAX_ELEMENTS entries in total, anything released beyond that is left to the garbage collector.
+ */
+public final class MatrixPool {
+
+    private static final int MAX_PER_SIZE = 8;
+    private static final long MAX_ELEMENTS = 1 << 20;
+    private static final ThreadLocal<MatrixPool> LOCAL = ThreadLocal.withInitial(MatrixPool::new);
+
+    private final HashMap<Long, ArrayDeque<Matrix>> free = new HashMap<>();
+    private long elements = 0;
+
+    public static MatrixPool local() {
+        return LOCAL.get();
+    }
+
+    public Matrix acquire(int rows, int columns) {
+        var matrices = free.get(key(rows, columns));
+        if (matrices != null) {
+            if (matrices.size() == 1)
+                free.remove(key(rows, columns));
+            elements -= (long) rows * columns;
+            return matrices.pop();
+        }
+        var values = new Fraction[rows][columns];
+        for (Fraction[] row : values)
+            Arrays.fill(row, Fraction.ZERO);
+        return new Matrix(values);
+    }
+
+    /**
+     * Releasing a matrix that is already in the pool is an error, it would be handed out twice.
+     */
+    public void release(Matrix A) {
+        long size = (long) A.getRows() * A.getColumns();
+        var matrices = free.get(key(A.getRows(), A.getColumns()));
+        if (matrices != null) {
+            for (Matrix B : matrices) {
+                if (B == A)
+                    throw new InvalidParameterException("Matrix was already released");
+            }
+        }
+        if ((matrices != null && matrices.size() >= MAX_PER_SIZE) || elements + size > MAX_ELEMENTS)
+            return;
+        free.computeIfAbsent(key(A.getRows(), A.getColumns()), k -> new ArrayDeque<>()).push(A);
+        elements += size;
+    }
+
+    /**
+     * Returns a scope that releases everything acquired through it when closed, meant for try-with-resources.
+     */
+    public Scope scope() {
+        return new Scope();
+    }
+
+    private static long key(int rows, int columns) {
+        return (long) rows << 32 | columns;
+    }
+
+    public final class Scope implements AutoCloseable {
+        private final ArrayList<Matrix> acquired = new ArrayList<>();
+
+        private Scope() {
+        }
+
+        public Matrix acquire(int rows, int columns) {
+            var A = MatrixPool.this.acquire(rows, columns);
+            acquired.add(A);
+            return A;
+        }
+
+        /**
+         * Releases every matrix even if some were already released by hand, the first such error is thrown at the end.
+         */
+        @Override
+        public void close() {
+            InvalidParameterException error = null;
+            for (Matrix A : acquired) {
+                try {
+                    release(A);
+                } catch (InvalidParameterException e) {
+                    if (error == null)
+                        error = e;
+                }
+            }
+            acquired.clear();
+            if (error != null)
+                throw error;
+        }
+    }
+}
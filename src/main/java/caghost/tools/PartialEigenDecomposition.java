@@ -0,0 +1,260 @@
+package caghost.tools;
+
+import java.security.InvalidParameterException;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A few eigenpairs of a large (usually sparse) matrix, using nothing but matrix-vector products.
+ * <p>
+ * powerIteration finds the dominant eigenpair of any matrix, e.g. the steady state of a Markov chain, without raising
+ * the matrix to a high power. lanczos finds the k eigenpairs of largest magnitude of a symmetric matrix, e.g. the
+ * principal components of a covariance matrix.
+ */
+public final class PartialEigenDecomposition {
+
+    private static final long SEED = 42;
+    private static final int BASIS_SIZE = 40; //vectors in the Lanczos basis before a restart, on top of 4k
+
+    private final double[] eigenvalues;
+    private final double[][] eigenvectors;
+
+    private PartialEigenDecomposition(double[] eigenvalues, double[][] eigenvectors) {
+        this.eigenvalues = eigenvalues;
+        this.eigenvectors = eigenvectors;
+    }
+
+    public double[] getEigenvalues() {
+        return eigenvalues.clone();
+    }
+
+    /**
+     * @return n x k matrix, column j belongs to eigenvalue j.
+     */
+    public DenseDoubleMatrix getEigenvectors() {
+        return new DenseDoubleMatrix(eigenvectors).clone();
+    }
+
+    /**
+     * Converges with the ratio of the two largest eigenvalue magnitudes, it fails if those are equal
+     * (e.g. a complex dominant pair).
+     */
+    public static PartialEigenDecomposition powerIteration(DoubleMatrix A, double tolerance, int maxIterations) {
+        if (!A.isSquare())
+            throw new InvalidParameterException("Not square");
+        int n = A.getRows();
+        var x = randomUnitVector(n, new Random(SEED));
+        var y = new double[n];
+        for (int iteration = 0; iteration < maxIterations; iteration++) {
+            A.multiply(x, y);
+            double lambda = Vectors.dot(x, y), residual = 0; //Rayleigh quotient, x has unit length
+            for (int i = 0; i < n; i++)
+                residual += (y[i] - lambda * x[i]) * (y[i] - lambda * x[i]);
+            double length = Vectors.norm(y);
+            if (length == 0)
+                return result(new double[]{0}, new double[][]{x});
+            for (int i = 0; i < n; i++)
+                x[i] = y[i] / length;
+            if (Math.sqrt(residual) <= tolerance * Math.abs(lambda))
+                return result(new double[]{lambda}, new double[][]{x});
+        }
+        throw new ArithmeticException("Power iteration did not converge after " + maxIterations + " iterations");
+    }
+
+    /**
+     * Block Lanczos with full reorthogonalisation, thick restarts and locking. The basis starts from k random vectors,
+     * so an eigenvalue repeated up to k times gets all its copies, and grows one vector at a time. Once it holds
+     * 4k + BASIS_SIZE vectors the Ritz pairs are computed, those of the k largest magnitudes whose residual norm is below
+     * tolerance * |eigenvalue| are locked, and the basis is restarted from the best remaining Ritz vectors plus the
+     * vectors not yet multiplied by A, so nothing learned so far is thrown away. It ends when k pairs are locked or the
+     * basis spans the whole space.
+     *
+     * @param A symmetric matrix, symmetry is not checked.
+     */
+    public static PartialEigenDecomposition lanczos(DoubleMatrix A, int k, double tolerance) {
+        if (!A.isSquare())
+            throw new InvalidParameterException("Not square");
+        int n = A.getRows();
+        if (k < 1 || k > n)
+            throw new InvalidParameterException("k must be between 1 and " + n);
+        var random = new Random(SEED);
+        int size = 4 * k + BASIS_SIZE;
+        var values = new double[0];
+        var vectors = new double[0][];
+        var Q = new double[size][];
+        var T = new double[size][size]; //T = Q^T A Q, known wherever one of the two vectors has been expanded
+        var h = new double[size];
+        int m = 0, expanded = 0; //Q[0, expanded) have been multiplied by A, Q[expanded, m) not yet
+        for (; m < k; m++)
+            Q[m] = orthogonalRandomVector(n, vectors, Q, m, random);
+        while (true) {
+            int available = n - vectors.length, capacity = Math.min(size, available);
+            while (expanded < m && (m < capacity || m == available)) {
+                var w = new double[n];
+                A.multiply(Q[expanded], w);
+                Arrays.fill(h, 0, m, 0);
+                for (int pass = 0; pass < 2; pass++) { //twice is enough to keep Q orthogonal to working precision
+                    for (double[] q : vectors)
+                        Vectors.orthogonalise(w, q);
+                    for (int i = 0; i < m; i++)
+                        h[i] += Vectors.orthogonalise(w, Q[i]);
+                }
+                for (int i = 0; i < m; i++)
+                    T[i][expanded] = T[expanded][i] = h[i];
+                if (m < available) { //the new vector is orthogonal to A times every other expanded vector
+                    for (int i = 0; i < size; i++)
+                        T[m][i] = T[i][m] = 0;
+                    double beta = Vectors.norm(w);
+                    if (beta <= 1e-12 * Math.abs(T[expanded][expanded]) || beta == 0) { //invariant subspace, carry on orthogonally
+                        Q[m] = orthogonalRandomVector(n, vectors, Q, m, random);
+                    } else {
+                        for (int l = 0; l < n; l++)
+                            w[l] /= beta;
+                        Q[m] = w;
+                        T[m][expanded] = T[expanded][m] = beta;
+                    }
+                    m++;
+                }
+                expanded++;
+            }
+            var theta = new double[expanded];
+            var S = ritzPairs(T, expanded, theta);
+            var order = new Integer[expanded];
+            for (int i = 0; i < expanded; i++)
+                order[i] = i;
+            Arrays.sort(order, (a, b) -> Double.compare(Math.abs(theta[b]), Math.abs(theta[a])));
+            var coupling = new double[m - expanded][expanded]; //T[expanded, m) S, the residual of Ritz pair i is column i
+            for (int u = expanded; u < m; u++) {
+                for (int j = 0; j < expanded; j++) {
+                    for (int i = 0; i < expanded; i++)
+                        coupling[u - expanded][i] += T[u][j] * S[j][i];
+                }
+            }
+            var lock = new boolean[expanded];
+            int locking = 0;
+            for (int r = 0; r < Math.min(k - vectors.length, expanded); r++) {
+                int i = order[r];
+                double residual = 0;
+                for (double[] row : coupling)
+                    residual += row[i] * row[i];
+                if (expanded == available || Math.sqrt(residual) <= tolerance * Math.max(Math.abs(theta[i]), Double.MIN_NORMAL)) {
+                    lock[i] = true;
+                    locking++;
+                }
+            }
+            int locked = values.length;
+            values = Arrays.copyOf(values, locked + locking);
+            vectors = Arrays.copyOf(vectors, locked + locking);
+            for (int i = 0; i < expanded; i++) {
+                if (lock[i]) {
+                    values[locked] = theta[i];
+                    vectors[locked++] = ritzVector(Q, S, i, expanded);
+                }
+            }
+            if (values.length >= k)
+                break;
+            //thick restart, the kept Ritz vectors are expanded already: A y = theta y + the unexpanded vectors times coupling
+            int keep = Math.min((size - k) / 2, expanded - locking), unexpanded = m - expanded;
+            var restartQ = new double[size][];
+            var restartT = new double[size][size];
+            for (int r = 0, j = 0; j < keep; r++) {
+                int i = order[r];
+                if (lock[i])
+                    continue;
+                restartQ[j] = ritzVector(Q, S, i, expanded);
+                restartT[j][j] = theta[i];
+                for (int u = 0; u < unexpanded; u++)
+                    restartT[keep + u][j] = restartT[j][keep + u] = coupling[u][i];
+                j++;
+            }
+            System.arraycopy(Q, expanded, restartQ, keep, unexpanded);
+            Q = restartQ;
+            T = restartT;
+            expanded = keep;
+            m = keep + unexpanded;
+        }
+        sortByMagnitude(values, vectors);
+        return result(Arrays.copyOf(values, k), Arrays.copyOf(vectors, k));
+    }
+
+    /**
+     * Eigenpairs of the leading count x count block of the symmetric T. The eigenvalues are written to theta, column i
+     * of the returned matrix is the eigenvector of theta[i] in the basis.
+     */
+    private static double[][] ritzPairs(double[][] T, int count, double[] theta) {
+        var S = new double[count][];
+        for (int i = 0; i < count; i++)
+            S[i] = Arrays.copyOf(T[i], count);
+        var e = new double[count];
+        EigenDecomposition.tridiagonalise(S, theta, e);
+        EigenDecomposition.tql2(theta, e, S);
+        return S;
+    }
+
+    private static double[] ritzVector(double[][] Q, double[][] S, int column, int count) {
+        var x = new double[Q[0].length];
+        for (int j = 0; j < count; j++) {
+            double s = S[j][column];
+            for (int l = 0; l < x.length; l++)
+                x[l] += s * Q[j][l];
+        }
+        return x;
+    }
+
+    private static void sortByMagnitude(double[] values, double[][] vectors) {
+        var order = new Integer[values.length];
+        for (int i = 0; i < order.length; i++)
+            order[i] = i;
+        Arrays.sort(order, (a, b) -> Double.compare(Math.abs(values[b]), Math.abs(values[a])));
+        var sortedValues = values.clone();
+        var sortedVectors = vectors.clone();
+        for (int i = 0; i < order.length; i++) {
+            values[i] = sortedValues[order[i]];
+            vectors[i] = sortedVectors[order[i]];
+        }
+    }
+
+    /**
+     * Packs vectors, one per row, into columns, with the largest component of every vector made positive.
+     */
+    private static PartialEigenDecomposition result(double[] values, double[][] vectors) {
+        int n = vectors[0].length, k = vectors.length;
+        var V = new double[n][k];
+        for (int j = 0; j < k; j++) {
+            double largest = 0;
+            for (int i = 0; i < n; i++) {
+                if (Math.abs(vectors[j][i]) > Math.abs(largest))
+                    largest = vectors[j][i];
+            }
+            for (int i = 0; i < n; i++)
+                V[i][j] = largest < 0 ? -vectors[j][i] : vectors[j][i];
+        }
+        return new PartialEigenDecomposition(values, V);
+    }
+
+    private static double[] randomUnitVector(int n, Random random) {
+        var x = new double[n];
+        for (int i = 0; i < n; i++)
+            x[i] = random.nextDouble() + 0.5;
+        double length = Vectors.norm(x);
+        for (int i = 0; i < n; i++)
+            x[i] /= length;
+        return x;
+    }
+
+    private static double[] orthogonalRandomVector(int n, double[][] locked, double[][] Q, int count, Random random) {
+        while (true) {
+            var x = randomUnitVector(n, random);
+            for (double[] q : locked)
+                Vectors.orthogonalise(x, q);
+            for (int i = 0; i < count; i++)
+                Vectors.orthogonalise(x, Q[i]);
+            double length = Vectors.norm(x);
+            if (length > 1e-8) {
+                for (int l = 0; l < x.length; l++)
+                    x[l] /= length;
+                return x;
+            }
+        }
+    }
+}
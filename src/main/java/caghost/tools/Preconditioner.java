@@ -0,0 +1,45 @@
+package caghost.tools;
+
+import java.security.InvalidParameterException;
+
+/**
+ * Approximates the inverse of a system matrix, so that z = M^-1 r is cheap to compute and the preconditioned
+ * system converges in fewer iterations.
+ */
+@FunctionalInterface
+public interface Preconditioner {
+
+    /**
+     * Computes z = M^-1 r. z has to be a different array than r.
+     */
+    void apply(double[] r, double[] z);
+
+    static Preconditioner identity() {
+        return (r, z) -> System.arraycopy(r, 0, z, 0, r.length);
+    }
+
+    /**
+     * Jacobi preconditioner, M = diag(A).
+     */
+    static Preconditioner diagonal(DoubleMatrix A) {
+        if (!A.isSquare())
+            throw new InvalidParameterException("Not square");
+        var inverseDiagonal = A.getDiagonal();
+        for (int i = 0; i < inverseDiagonal.length; i++) {
+            if (inverseDiagonal[i] == 0)
+                throw new ArithmeticException("Zero on the diagonal at row " + i);
+            inverseDiagonal[i] = 1 / inverseDiagonal[i];
+        }
+        return (r, z) -> {
+            for (int i = 0; i < r.length; i++)
+                z[i] = r[i] * inverseDiagonal[i];
+        };
+    }
+
+    /**
+     * Incomplete LU factorisation with the sparsity pattern of A, M = LU.
+     */
+    static Preconditioner incompleteLU(DoubleMatrix A) {
+        return new IncompleteLU(A.toSparse());
+    }
+}
@@ -0,0 +1,139 @@
+package caghost.tools;
+
+/**
+ * Thin singular value decomposition A = U S V^T of an m x n double backed matrix by one-sided Jacobi rotations.
+ * Pairs of columns are rotated until they are all orthogonal, the column lengths are then the singular values.
+ * Slower than Golub-Kahan on large matrices but simple and accurate even for tiny singular values.
+ * <p>
+ * U is m x k, V is n x k with k = min(m, n), the singular values are sorted largest first.
+ */
+public final class SingularValueDecomposition {
+
+    private static final double EPSILON = Math.ulp(1.0);
+    private static final int MAX_SWEEPS = 60;
+
+    private final double[][] U, V;
+    private final double[] singularValues;
+
+    public SingularValueDecomposition(DoubleMatrix A) {
+        boolean transposed = A.getRows() < A.getColumns();
+        int m = transposed ? A.getColumns() : A.getRows(), n = transposed ? A.getRows() : A.getColumns();
+        var columns = new double[n][m]; //columns of A (or of A^T), rotated in place into US
+        var rotations = new double[n][n]; //columns of V
+        for (int j = 0; j < n; j++) {
+            for (int i = 0; i < m; i++)
+                columns[j][i] = transposed ? A.get(j, i) : A.get(i, j);
+            rotations[j][j] = 1;
+        }
+        orthogonalise(columns, rotations);
+        singularValues = new double[n];
+        for (int j = 0; j < n; j++) {
+            singularValues[j] = Vectors.norm(columns[j]);
+            if (singularValues[j] != 0) {
+                for (int i = 0; i < m; i++)
+                    columns[j][i] /= singularValues[j];
+            }
+        }
+        sort(columns, rotations);
+        var left = transpose(columns);
+        var right = transpose(rotations);
+        U = transposed ? right : left;
+        V = transposed ? left : right;
+    }
+
+    public DenseDoubleMatrix getU() {
+        return new DenseDoubleMatrix(U).clone();
+    }
+
+    public DenseDoubleMatrix getV() {
+        return new DenseDoubleMatrix(V).clone();
+    }
+
+    public double[] getSingularValues() {
+        return singularValues.clone();
+    }
+
+    /**
+     * Number of singular values above the usual numerical tolerance, max(m, n) * largest * ulp(1).
+     */
+    public int rank() {
+        if (singularValues.length == 0)
+            return 0;
+        double tolerance = Math.max(U.length, V.length) * singularValues[0] * EPSILON;
+        int rank = 0;
+        for (double s : singularValues)
+            rank += s > tolerance ? 1 : 0;
+        return rank;
+    }
+
+    public double conditionNumber() {
+        return singularValues[0] / singularValues[singularValues.length - 1];
+    }
+
+    private static void orthogonalise(double[][] columns, double[][] rotations) {
+        int n = columns.length;
+        double negligible = 0; //squared length of a column that is zero to working precision
+        for (double[] column : columns)
+            negligible += Vectors.dot(column, column);
+        negligible *= EPSILON * EPSILON;
+        for (int sweep = 0; sweep < MAX_SWEEPS; sweep++) {
+            boolean rotated = false;
+            for (int p = 0; p < n - 1; p++) {
+                for (int q = p + 1; q < n; q++) {
+                    double alpha = Vectors.dot(columns[p], columns[p]);
+                    double beta = Vectors.dot(columns[q], columns[q]);
+                    double gamma = Vectors.dot(columns[p], columns[q]);
+                    if (gamma == 0 || Math.abs(gamma) <= EPSILON * Math.sqrt(alpha * beta) || Math.min(alpha, beta) <= negligible)
+                        continue;
+                    rotated = true;
+                    double zeta = (beta - alpha) / (2 * gamma); //rotation that zeroes the dot product of p and q
+                    double t = Math.signum(zeta) / (Math.abs(zeta) + Math.sqrt(1 + zeta * zeta));
+                    if (zeta == 0)
+                        t = 1;
+                    double c = 1 / Math.sqrt(1 + t * t), s = c * t;
+                    rotate(columns[p], columns[q], c, s);
+                    rotate(rotations[p], rotations[q], c, s);
+                }
+            }
+            if (!rotated)
+                return;
+        }
+        throw new ArithmeticException("Jacobi SVD did not converge");
+    }
+
+    private static void rotate(double[] p, double[] q, double c, double s) {
+        for (int i = 0; i < p.length; i++) {
+            double a = p[i], b = q[i];
+            p[i] = c * a - s * b;
+            q[i] = s * a + c * b;
+        }
+    }
+
+    private void sort(double[][] columns, double[][] rotations) {
+        for (int i = 0; i < singularValues.length - 1; i++) {
+            int largest = i;
+            for (int j = i + 1; j < singularValues.length; j++) {
+                if (singularValues[j] > singularValues[largest])
+                    largest = j;
+            }
+            double temp = singularValues[i];
+            singularValues[i] = singularValues[largest];
+            singularValues[largest] = temp;
+            var column = columns[i];
+            columns[i] = columns[largest];
+            columns[largest] = column;
+            column = rotations[i];
+            rotations[i] = rotations[largest];
+            rotations[largest] = column;
+        }
+    }
+
+    private static double[][] transpose(double[][] A) {
+        var T = new double[A[0].length][A.length];
+        for (int i = 0; i < A.length; i++) {
+            for (int j = 0; j < A[i].length; j++)
+                T[j][i] = A[i][j];
+        }
+        return T;
+    }
+}
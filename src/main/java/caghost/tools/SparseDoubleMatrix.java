@@ -0,0 +1,173 @@
+package caghost.tools;
+
+import java.security.InvalidParameterException;
+import java.util.Arrays;
+
+/**
+ * Compressed sparse row matrix. Row i holds the entries columnIndices[rowPointers[i] .. rowPointers[i + 1] - 1],
+ * sorted by column, so a matrix-vector product only touches the non zero entries.
+ */
+public final class SparseDoubleMatrix implements DoubleMatrix {
+
+    private final int rows, columns;
+    private final int[] rowPointers, columnIndices;
+    private final double[] values;
+
+    private SparseDoubleMatrix(int[] rowPointers, int columns, int[] columnIndices, double[] values) {
+        this.rows = rowPointers.length - 1;
+        this.columns = columns;
+        this.rowPointers = rowPointers;
+        this.columnIndices = columnIndices;
+        this.values = values;
+    }
+
+    /**
+     * Class constructor. Creates a matrix from coordinate (row, column, value) triplets, duplicates are summed.
+     *
+     * @param rows          number of rows.
+     * @param columns       number of columns.
+     * @param rowIndices    row of every entry.
+     * @param columnIndices column of every entry.
+     * @param values        value of every entry.
+     */
+    public SparseDoubleMatrix(int rows, int columns, int[] rowIndices, int[] columnIndices, double[] values) {
+        if (rowIndices.length != columnIndices.length || rowIndices.length != values.length)
+            throw new InvalidParameterException("Triplet arrays differ in length");
+        this.rows = rows;
+        this.columns = columns;
+        var pointers = new int[rows + 1];
+        for (int k = 0; k < rowIndices.length; k++) {
+            if (rowIndices[k] < 0 || rowIndices[k] >= rows || columnIndices[k] < 0 || columnIndices[k] >= columns)
+                throw new InvalidParameterException("Entry (" + rowIndices[k] + ", " + columnIndices[k] + ") out of bounds");
+            pointers[rowIndices[k] + 1]++;
+        }
+        for (int i = 0; i < rows; i++)
+            pointers[i + 1] += pointers[i];
+        var next = Arrays.copyOf(pointers, rows);
+        var sortedColumns = new int[values.length];
+        var sortedValues = new double[values.length];
+        for (int k = 0; k < rowIndices.length; k++) {
+            int position = next[rowIndices[k]]++;
+            sortedColumns[position] = columnIndices[k];
+            sortedValues[position] = values[k];
+        }
+        int size = 0;
+        for (int i = 0; i < rows; i++) {
+            int start = pointers[i], end = pointers[i + 1];
+            sortRow(sortedColumns, sortedValues, start, end);
+            pointers[i] = size;
+            for (int k = start; k < end; k++) {
+                if (size > pointers[i] && sortedColumns[size - 1] == sortedColumns[k]) {
+                    sortedValues[size - 1] += sortedValues[k];
+                } else {
+                    sortedColumns[size] = sortedColumns[k];
+                    sortedValues[size++] = sortedValues[k];
+                }
+            }
+        }
+        pointers[rows] = size;
+        rowPointers = pointers;
+        this.columnIndices = Arrays.copyOf(sortedColumns, size);
+        this.values = Arrays.copyOf(sortedValues, size);
+    }
+
+    public static SparseDoubleMatrix of(Matrix A) {
+        return of(DenseDoubleMatrix.of(A));
+    }
+
+    public static SparseDoubleMatrix of(DoubleMatrix A) {
+        if (A instanceof SparseDoubleMatrix)
+            return (SparseDoubleMatrix) A;
+        int nonZeros = 0;
+        for (int i = 0; i < A.getRows(); i++) {
+            for (int j = 0; j < A.getColumns(); j++)
+                nonZeros += A.get(i, j) != 0 ? 1 : 0;
+        }
+        var pointers = new int[A.getRows() + 1];
+        var columnIndices = new int[nonZeros];
+        var values = new double[nonZeros];
+        int k = 0;
+        for (int i = 0; i < A.getRows(); i++) {
+            for (int j = 0; j < A.getColumns(); j++) {
+                double value = A.get(i, j);
+                if (value != 0) {
+                    columnIndices[k] = j;
+                    values[k++] = value;
+                }
+            }
+            pointers[i + 1] = k;
+        }
+        return new SparseDoubleMatrix(pointers, A.getColumns(), columnIndices, values);
+    }
+
+    private static void sortRow(int[] columns, double[] values, int start, int end) { //insertion sort, rows are short
+        for (int i = start + 1; i < end; i++) {
+            int column = columns[i];
+            double value = values[i];
+            int j = i - 1;
+            while (j >= start && columns[j] > column) {
+                columns[j + 1] = columns[j];
+                values[j + 1] = values[j];
+                j--;
+            }
+            columns[j + 1] = column;
+            values[j + 1] = value;
+        }
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getColumns() {
+        return columns;
+    }
+
+    public int nonZeros() {
+        return values.length;
+    }
+
+    @Override
+    public double get(int row, int column) {
+        int index = indexOf(row, column);
+        return index < 0 ? 0 : values[index];
+    }
+
+    /**
+     * Returns the position of (row, column) in the value array, or a negative number if the entry is not stored.
+     */
+    int indexOf(int row, int column) {
+        return Arrays.binarySearch(columnIndices, rowPointers[row], rowPointers[row + 1], column);
+    }
+
+    int[] getRowPointers() {
+        return rowPointers;
+    }
+
+    int[] getColumnIndices() {
+        return columnIndices;
+    }
+
+    double[] getStoredValues() {
+        return values;
+    }
+
+    @Override
+    public void multiply(double[] x, double[] y) {
+        if (x.length != columns || y.length != rows)
+            throw new InvalidParameterException("Cannot be multiplied");
+        for (int i = 0; i < rows; i++) {
+            double sum = 0;
+            for (int k = rowPointers[i]; k < rowPointers[i + 1]; k++)
+                sum += values[k] * x[columnIndices[k]];
+            y[i] = sum;
+        }
+    }
+
+    @Override
+    public SparseDoubleMatrix toSparse() {
+        return this;
+    }
+}
@@ -0,0 +1,31 @@
+package caghost.tools;
+
+/**
+ * Dense vector operations shared by the solvers and the decompositions.
+ */
+final class Vectors {
+
+    private Vectors() {
+    }
+
+    static double dot(double[] a, double[] b) {
+        double sum = 0;
+        for (int i = 0; i < a.length; i++)
+            sum += a[i] * b[i];
+        return sum;
+    }
+
+    static double norm(double[] a) {
+        return Math.sqrt(dot(a, a));
+    }
+
+    /**
+     * Removes the component along the unit vector q from x and returns its size.
+     */
+    static double orthogonalise(double[] x, double[] q) {
+        double dot = dot(x, q);
+        for (int i = 0; i < x.length; i++)
+            x[i] -= dot * q[i];
+        return dot;
+    }
+}
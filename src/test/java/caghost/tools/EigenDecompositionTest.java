@@ -0,0 +1,91 @@
+package caghost.tools;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EigenDecompositionTest {
+
+    /**
+     * Checks A V = V diag(eigenvalues), for a complex pair the columns u, v satisfy Au = au - bv and Av = bu + av.
+     */
+    private static void assertEigenpairs(double[][] A, EigenDecomposition eigen) {
+        var V = eigen.getEigenvectors().getValues();
+        var AV = TestMatrices.multiply(A, V);
+        double[] a = eigen.getRealEigenvalues(), b = eigen.getImaginaryEigenvalues();
+        for (int j = 0; j < A.length; j++) {
+            for (int i = 0; i < A.length; i++) {
+                if (b[j] == 0) {
+                    assertEquals(a[j] * V[i][j], AV[i][j], 1e-10);
+                } else {
+                    assertEquals(a[j] * V[i][j] - b[j] * V[i][j + 1], AV[i][j], 1e-10);
+                    assertEquals(b[j] * V[i][j] + a[j] * V[i][j + 1], AV[i][j + 1], 1e-10);
+                }
+            }
+            j += b[j] == 0 ? 0 : 1;
+        }
+    }
+
+    private static int rank(EigenDecomposition eigen) {
+        return new SingularValueDecomposition(eigen.getEigenvectors()).rank();
+    }
+
+    @Test
+    void symmetric() {
+        var R = TestMatrices.random(12, 12, 1);
+        var A = TestMatrices.multiply(R, transpose(R));
+        var eigen = new EigenDecomposition(new DenseDoubleMatrix(A));
+        assertTrue(eigen.isSymmetric());
+        assertEigenpairs(A, eigen);
+        var values = eigen.getRealEigenvalues();
+        for (int i = 1; i < values.length; i++)
+            assertTrue(values[i - 1] >= values[i]);
+    }
+
+    @Test
+    void general() {
+        var A = TestMatrices.random(12, 12, 2);
+        var eigen = new EigenDecomposition(new DenseDoubleMatrix(A));
+        assertFalse(eigen.isSymmetric());
+        assertTrue(eigen.hasComplexEigenvalues());
+        assertEigenpairs(A, eigen);
+        assertEquals(12, rank(eigen));
+    }
+
+    @Test
+    void repeatedEigenvalueGetsIndependentVectors() {
+        var A = new double[][]{{1, 2, 0}, {0, 3, 0}, {0, 0, 1}};
+        var eigen = new EigenDecomposition(new DenseDoubleMatrix(A));
+        assertArrayEquals(new double[]{3, 1, 1}, eigen.getRealEigenvalues(), 1e-12);
+        assertEigenpairs(A, eigen);
+        assertEquals(3, rank(eigen));
+    }
+
+    @Test
+    void defectiveMatrixRepeatsItsEigenvector() {
+        for (var A : new double[][][]{{{1, 1}, {0, 1}}, {{2, 1, 0}, {0, 2, 1}, {0, 0, 2}}}) {
+            var eigen = new EigenDecomposition(new DenseDoubleMatrix(A));
+            assertEigenpairs(A, eigen);
+            assertTrue(new SingularValueDecomposition(eigen.getEigenvectors()).conditionNumber() > 1e12);
+            var V = eigen.getEigenvectors().getValues();
+            for (double[] row : V)
+                assertEquals(row[0], row[row.length - 1], 1e-12);
+        }
+    }
+
+    @Test
+    void rotationHasComplexPair() {
+        var eigen = new EigenDecomposition(new DenseDoubleMatrix(new double[][]{{0, -1}, {1, 0}}));
+        assertArrayEquals(new double[]{1, -1}, eigen.getImaginaryEigenvalues(), 1e-12);
+        assertEigenpairs(new double[][]{{0, -1}, {1, 0}}, eigen);
+    }
+
+    private static double[][] transpose(double[][] A) {
+        var T = new double[A[0].length][A.length];
+        for (int i = 0; i < A.length; i++) {
+            for (int j = 0; j < A[0].length; j++)
+                T[j][i] = A[i][j];
+        }
+        return T;
+    }
+}
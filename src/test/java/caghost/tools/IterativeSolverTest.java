@@ -0,0 +1,52 @@
+package caghost.tools;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IterativeSolverTest {
+
+    private static final SparseDoubleMatrix A = TestMatrices.poisson(20);
+    private static final double[] b = ones(A.getRows());
+
+    private static double[] ones(int n) {
+        var b = new double[n];
+        Arrays.fill(b, 1);
+        return b;
+    }
+
+    private static void assertSolves(IterativeSolver solver) {
+        var x = solver.solve(A, b);
+        assertTrue(Vectors.norm(TestMatrices.residual(A, x, b)) <= 1e-8 * Vectors.norm(b));
+    }
+
+    @Test
+    void solvesPoissonWithEveryMethod() {
+        assertSolves(IterativeSolver.jacobi().maxIterations(5000));
+        assertSolves(IterativeSolver.gaussSeidel().maxIterations(5000));
+        assertSolves(IterativeSolver.conjugateGradient());
+        assertSolves(IterativeSolver.gmres(30));
+    }
+
+    @Test
+    void preconditioningNeedsFewerIterations() {
+        int[] plain = new int[1], preconditioned = new int[1];
+        IterativeSolver.conjugateGradient().onIteration((iteration, residual) -> plain[0] = iteration).solve(A, b);
+        IterativeSolver.conjugateGradient().preconditioner(Preconditioner.incompleteLU(A))
+                .onIteration((iteration, residual) -> preconditioned[0] = iteration).solve(A, b);
+        assertTrue(preconditioned[0] < plain[0]);
+    }
+
+    @Test
+    void solvesAugmentedMatrix() {
+        var augmented = new Matrix(new int[][]{{4, -1, 0, 3}, {-1, 4, -1, 2}, {0, -1, 4, 3}});
+        assertArrayEquals(new double[]{1, 1, 1}, IterativeSolver.conjugateGradient().solve(augmented), 1e-9);
+    }
+
+    @Test
+    void throwsWhenNotConverged() {
+        assertThrows(ArithmeticException.class, () -> IterativeSolver.jacobi().maxIterations(3).solve(A, b));
+    }
+}
@@ -0,0 +1,86 @@
+package caghost.tools;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatrixEquationInterpreterTest {
+
+    private static final String[] EXPRESSIONS = {"A*B + 2*C - D^3", "A - B + C", "(A+B)^2", "A*2", "A", "(A)",
+            "eigenvalues(C)", "A*eigenvalues(C)"};
+
+    private static ArrayList<Matrix> matrices() {
+        return new ArrayList<>(List.of(
+                new Matrix(new int[][]{{1, 2}, {3, 4}}),
+                new Matrix(new int[][]{{0, 1}, {-1, 2}}),
+                new Matrix(new int[][]{{2, 1}, {1, 2}}),
+                new Matrix(new int[][]{{1, 1}, {0, 1}})));
+    }
+
+    private static void assertSameValues(Matrix expected, Matrix actual) {
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    @Test
+    void solveGivesTheSameResultBeforeAndAfterCompiling() {
+        for (String expression : EXPRESSIONS) {
+            var interpreter = MatrixEquationInterpreter.compile(matrices(), expression);
+            var first = interpreter.solve();
+            assertNotNull(first, expression);
+            for (int call = 1; call < 2 * MatrixEquationInterpreter.COMPILE_THRESHOLD; call++)
+                assertSameValues(first, interpreter.solve());
+        }
+    }
+
+    @Test
+    void solveIntoGivesTheSameResultBeforeAndAfterCompiling() {
+        for (String expression : EXPRESSIONS) {
+            var expected = MatrixEquationInterpreter.compile(matrices(), expression).solve();
+            var interpreter = MatrixEquationInterpreter.compile(matrices(), expression);
+            var destination = new Matrix(expected.getRows(), expected.getColumns());
+            for (int call = 0; call < 2 * MatrixEquationInterpreter.COMPILE_THRESHOLD; call++)
+                assertSame(destination, interpreter.solveInto(destination));
+            assertSameValues(expected, destination);
+        }
+    }
+
+    @Test
+    void unsupportedExpressionStaysUnsupported() {
+        var interpreter = MatrixEquationInterpreter.compile(matrices(), "-A + B");
+        for (int call = 0; call < 2 * MatrixEquationInterpreter.COMPILE_THRESHOLD; call++)
+            assertNull(interpreter.solve());
+    }
+
+    @Test
+    void recompilesWhenTheMatricesChange() {
+        var list = matrices();
+        var interpreter = MatrixEquationInterpreter.compile(list, "A*B + C");
+        for (int call = 0; call < 2 * MatrixEquationInterpreter.COMPILE_THRESHOLD; call++)
+            interpreter.solve();
+        list.set(1, new Matrix(new int[][]{{5, 0}, {0, 5}}));
+        assertSameValues(MatrixEquationInterpreter.compile(new ArrayList<>(list), "A*B + C").solve(), interpreter.solve());
+    }
+
+    @Test
+    void recompilesAfterAFailedCompile() {
+        var list = matrices();
+        list.set(1, new Matrix(new int[][]{{1, 2, 3}}));
+        var interpreter = MatrixEquationInterpreter.compile(list, "A*B");
+        for (int call = 0; call < MatrixEquationInterpreter.COMPILE_THRESHOLD; call++)
+            assertThrows(RuntimeException.class, interpreter::solve);
+        list.set(1, new Matrix(new int[][]{{1, 0}, {0, 1}}));
+        for (int call = 0; call < MatrixEquationInterpreter.COMPILE_THRESHOLD; call++)
+            assertSameValues(list.get(0), interpreter.solve());
+    }
+
+    @Test
+    void overflowingFunctionResultsThrow() {
+        var list = new ArrayList<>(List.of(new Matrix(new int[][]{{2, 1, 0}, {1, 3, 1}, {0, 1, 4}})));
+        var interpreter = MatrixEquationInterpreter.compile(list, "eigenvectors(A)*eigenvectors(A)");
+        for (int call = 0; call < 2 * MatrixEquationInterpreter.COMPILE_THRESHOLD; call++)
+            assertThrows(ArithmeticException.class, interpreter::solve);
+    }
+}
@@ -0,0 +1,85 @@
+package caghost.tools;
+
+import org.junit.jupiter.api.Test;
+
+import java.security.InvalidParameterException;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatrixLoaderTest {
+
+    private static Fraction parse(String s) {
+        return Fraction.convertString(s);
+    }
+
+    private static MatrixFormatException loadError(String text) {
+        return assertThrows(MatrixFormatException.class, () -> MatrixLoader.parse(text));
+    }
+
+    @Test
+    void parsesSignsFractionsAndDecimals() {
+        assertEquals(new Fraction(-3), parse("-3"));
+        assertEquals(new Fraction(3), parse("+3"));
+        assertEquals(new Fraction(-3, 4), parse("-3/4"));
+        assertEquals(new Fraction(5, 2), parse("2.5"));
+        assertEquals(new Fraction(-1, 8), parse("-.125"));
+        assertEquals(new Fraction(1), parse("1."));
+        assertEquals(new Fraction(3, 2), parse("1.50000000000000000000000"));
+        assertEquals(Fraction.ZERO, parse("-0.0"));
+    }
+
+    @Test
+    void rejectsMalformedNumbers() {
+        for (String s : new String[]{"", ".", "-", "1/", "/2", "1.2.3", "1/2/3", "a", "1e5", "2 "})
+            assertThrows(InvalidParameterException.class, () -> parse(s));
+        assertThrows(ArithmeticException.class, () -> parse("3/0"));
+    }
+
+    @Test
+    void digitLimitCountsOnlySignificantDigits() {
+        assertEquals(Fraction.ONE, parse("0000000000000000000001"));
+        assertEquals(new Fraction(-21, 4), parse("-0000000000000000000042/00000000000000000008"));
+        assertEquals("Out of range", assertThrows(InvalidParameterException.class, () -> parse("1234567890123456789")).getMessage());
+        assertEquals("Out of range", assertThrows(InvalidParameterException.class, () -> parse("0.0000000000000000001")).getMessage());
+        assertEquals("Out of range", assertThrows(InvalidParameterException.class, () -> parse("3000000000")).getMessage());
+    }
+
+    @Test
+    void loadsCsvAndWhitespaceSkippingBlankLines() {
+        var A = MatrixLoader.parse("1, 2\n\n  3,-1/2  \n");
+        assertEquals(new Fraction(-1, 2), A.getValues()[1][1]);
+        var B = MatrixLoader.parse("1 2\t3\n4  5 6");
+        assertEquals(2, B.getRows());
+        assertEquals(3, B.getColumns());
+    }
+
+    @Test
+    void emptyCellsAreErrorsInEveryPosition() {
+        assertEquals(1, loadError(",1, 2\n3, 4").getColumn());
+        assertEquals(3, loadError("1,,2\n3,4,5").getColumn());
+        var trailing = loadError("1, 2\n3, 4,");
+        assertEquals(2, trailing.getLine());
+        assertEquals(6, trailing.getColumn());
+    }
+
+    @Test
+    void raggedRowsAreErrors() {
+        assertEquals(2, loadError("1 2\n3 4 5").getLine());
+        assertEquals(3, loadError("1 2\n3 4\n5").getLine());
+        assertThrows(InvalidParameterException.class, () -> MatrixLoader.parse("\n  \n"));
+    }
+
+    @Test
+    void reportsFirstErrorAcrossChunks() {
+        var lines = new ArrayList<String>();
+        for (int i = 0; i < 500; i++)
+            lines.add(i + ", 1");
+        lines.set(450, "x, 1");
+        lines.set(130, "1, y");
+        lines.set(300, "1");
+        var e = assertThrows(MatrixFormatException.class, () -> MatrixLoader.parse(lines));
+        assertEquals(131, e.getLine());
+        assertEquals(4, e.getColumn());
+    }
+}
@@ -0,0 +1,101 @@
+package caghost.tools;
+
+import org.junit.jupiter.api.Test;
+
+import java.security.InvalidParameterException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatrixPoolTest {
+
+    private static final Matrix A = new Matrix(new int[][]{{1, 2}, {3, 4}});
+    private static final Matrix B = new Matrix(new int[][]{{0, 1}, {-1, 2}});
+
+    private static void assertSameValues(Matrix expected, Matrix actual) {
+        assertEquals(expected.getRows(), actual.getRows());
+        assertEquals(expected.getColumns(), actual.getColumns());
+        for (int i = 0; i < expected.getRows(); i++) {
+            for (int j = 0; j < expected.getColumns(); j++)
+                assertEquals(expected.getValues()[i][j], actual.getValues()[i][j]);
+        }
+    }
+
+    @Test
+    void intoVariantsMatchAllocatingOnes() {
+        var destination = new Matrix(2, 2);
+        assertSame(destination, Matrix.add(A, B, destination));
+        assertSameValues(Matrix.add(A, B), destination);
+        assertSameValues(Matrix.subtract(A, B), Matrix.subtract(A, B, destination));
+        assertSameValues(Matrix.scale(A, new Fraction(3, 2)), Matrix.scale(A, new Fraction(3, 2), destination));
+        assertSameValues(Matrix.multiply(A, B), Matrix.multiply(A, B, destination));
+        assertSameValues(A, Matrix.copy(A, destination));
+    }
+
+    @Test
+    void elementWiseIntoMayOverwriteAnOperand() {
+        var C = A.clone();
+        Matrix.add(C, B, C);
+        assertSameValues(Matrix.add(A, B), C);
+    }
+
+    @Test
+    void multiplyAndPowRejectAliasing() {
+        var C = A.clone();
+        assertThrows(InvalidParameterException.class, () -> Matrix.multiply(C, B, C));
+        assertThrows(InvalidParameterException.class, () -> Matrix.multiply(B, C, C));
+        assertThrows(InvalidParameterException.class, () -> Matrix.pow(C, 3, C));
+        assertThrows(InvalidParameterException.class, () -> Matrix.add(A, B, new Matrix(3, 2)));
+    }
+
+    @Test
+    void powMatchesRepeatedMultiplication() {
+        var pool = new MatrixPool();
+        var expected = A.clone();
+        for (int power = 1; power <= 6; power++) {
+            assertSameValues(expected, Matrix.pow(A, power));
+            assertSameValues(expected, Matrix.pow(A, power, new Matrix(2, 2)));
+            assertSameValues(expected, Matrix.pow(A, power, new Matrix(2, 2), pool));
+            expected = Matrix.multiply(A, expected);
+        }
+    }
+
+    @Test
+    void releasedMatricesAreReused() {
+        var pool = new MatrixPool();
+        var C = pool.acquire(2, 3);
+        pool.release(C);
+        assertSame(C, pool.acquire(2, 3));
+        assertNotSame(C, pool.acquire(2, 3));
+    }
+
+    @Test
+    void doubleReleaseIsRejected() {
+        var pool = new MatrixPool();
+        var C = pool.acquire(2, 2);
+        pool.release(C);
+        assertThrows(InvalidParameterException.class, () -> pool.release(C));
+        assertNotSame(pool.acquire(2, 2), pool.acquire(2, 2));
+    }
+
+    @Test
+    void scopeReleasesEverythingEvenAfterAManualRelease() {
+        var pool = new MatrixPool();
+        Matrix first, second;
+        var scope = pool.scope();
+        first = scope.acquire(2, 2);
+        second = scope.acquire(2, 2);
+        pool.release(first);
+        assertThrows(InvalidParameterException.class, scope::close);
+        var a = pool.acquire(2, 2);
+        var b = pool.acquire(2, 2);
+        assertTrue((a == first && b == second) || (a == second && b == first));
+    }
+
+    @Test
+    void largeMatricesAreNotKept() {
+        var pool = new MatrixPool();
+        var C = new Matrix(1100, 1000);
+        pool.release(C);
+        assertNotSame(C, pool.acquire(1100, 1000));
+    }
+}
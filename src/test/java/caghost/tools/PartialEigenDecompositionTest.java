@@ -0,0 +1,43 @@
+package caghost.tools;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartialEigenDecompositionTest {
+
+    @Test
+    void lanczosMatchesFullDecompositionWithRepeatedEigenvalues() {
+        var A = TestMatrices.poisson(20); //top 4 are 7.955, 7.889, 7.889, 7.822
+        var partial = PartialEigenDecomposition.lanczos(A, 4, 1e-10);
+        var expected = Arrays.copyOf(new EigenDecomposition(A).getRealEigenvalues(), 4);
+        assertArrayEquals(expected, partial.getEigenvalues(), 1e-8);
+        var V = partial.getEigenvectors().getValues();
+        var x = new double[A.getRows()];
+        for (int j = 0; j < 4; j++) {
+            for (int i = 0; i < x.length; i++)
+                x[i] = V[i][j];
+            var Ax = new double[x.length];
+            A.multiply(x, Ax);
+            for (int i = 0; i < x.length; i++)
+                assertEquals(expected[j] * x[i], Ax[i], 1e-8);
+        }
+    }
+
+    @Test
+    void lanczosFindsEveryCopyOfAnEigenvalue() {
+        var A = new DenseDoubleMatrix(new double[][]{{2, 0, 0, 0}, {0, 2, 0, 0}, {0, 0, 2, 0}, {0, 0, 0, 1}});
+        assertArrayEquals(new double[]{2, 2, 2}, PartialEigenDecomposition.lanczos(A, 3, 1e-10).getEigenvalues(), 1e-12);
+    }
+
+    @Test
+    void powerIterationFindsSteadyState() {
+        var P = new DenseDoubleMatrix(new double[][]{{0.9, 0.5}, {0.1, 0.5}}); //column stochastic, steady state (5, 1) / 6
+        var power = PartialEigenDecomposition.powerIteration(P, 1e-12, 1000);
+        assertEquals(1, power.getEigenvalues()[0], 1e-10);
+        var v = power.getEigenvectors().getValues();
+        assertEquals(5, v[0][0] / v[1][0], 1e-8);
+    }
+}
@@ -0,0 +1,37 @@
+package caghost.tools;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingularValueDecompositionTest {
+
+    private static void assertReconstructs(double[][] A) {
+        var svd = new SingularValueDecomposition(new DenseDoubleMatrix(A));
+        double[][] U = svd.getU().getValues(), V = svd.getV().getValues();
+        var s = svd.getSingularValues();
+        for (int i = 0; i < A.length; i++) {
+            for (int j = 0; j < A[0].length; j++) {
+                double sum = 0;
+                for (int k = 0; k < s.length; k++)
+                    sum += U[i][k] * s[k] * V[j][k];
+                assertEquals(A[i][j], sum, 1e-12);
+            }
+        }
+        for (int k = 1; k < s.length; k++)
+            assertTrue(s[k - 1] >= s[k]);
+    }
+
+    @Test
+    void reconstructsTallAndWide() {
+        assertReconstructs(TestMatrices.random(9, 5, 3));
+        assertReconstructs(TestMatrices.random(5, 9, 4));
+    }
+
+    @Test
+    void rankOfDeficientMatrix() {
+        var svd = new SingularValueDecomposition(new DenseDoubleMatrix(new double[][]{{1, 2, 3}, {2, 4, 6}, {1, 0, 1}}));
+        assertEquals(2, svd.rank());
+        assertEquals(3, new SingularValueDecomposition(new DenseDoubleMatrix(new double[][]{{3, 0, 0}, {0, 2, 0}, {0, 0, 1}})).conditionNumber(), 1e-12);
+    }
+}
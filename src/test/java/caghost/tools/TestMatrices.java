@@ -0,0 +1,68 @@
+package caghost.tools;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Matrices shared by the numeric tests.
+ */
+final class TestMatrices {
+
+    private TestMatrices() {
+    }
+
+    /**
+     * 5-point Laplacian on an m x m grid, symmetric positive definite with many repeated eigenvalues.
+     */
+    static SparseDoubleMatrix poisson(int m) {
+        int n = m * m, count = 0;
+        int[] rows = new int[5 * n], columns = new int[5 * n];
+        var values = new double[5 * n];
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < m; j++) {
+                int p = i * m + j;
+                int[] neighbours = {i > 0 ? p - m : -1, i < m - 1 ? p + m : -1, j > 0 ? p - 1 : -1, j < m - 1 ? p + 1 : -1};
+                rows[count] = columns[count] = p;
+                values[count++] = 4;
+                for (int q : neighbours) {
+                    if (q >= 0) {
+                        rows[count] = p;
+                        columns[count] = q;
+                        values[count++] = -1;
+                    }
+                }
+            }
+        }
+        return new SparseDoubleMatrix(n, n, Arrays.copyOf(rows, count), Arrays.copyOf(columns, count),
+                Arrays.copyOf(values, count));
+    }
+
+    static double[][] random(int rows, int columns, long seed) {
+        var random = new Random(seed);
+        var A = new double[rows][columns];
+        for (double[] row : A) {
+            for (int j = 0; j < columns; j++)
+                row[j] = random.nextGaussian();
+        }
+        return A;
+    }
+
+    static double[][] multiply(double[][] A, double[][] B) {
+        var C = new double[A.length][B[0].length];
+        for (int i = 0; i < A.length; i++) {
+            for (int k = 0; k < B.length; k++) {
+                for (int j = 0; j < B[0].length; j++)
+                    C[i][j] += A[i][k] * B[k][j];
+            }
+        }
+        return C;
+    }
+
+    static double[] residual(DoubleMatrix A, double[] x, double[] b) {
+        var r = new double[b.length];
+        A.multiply(x, r);
+        for (int i = 0; i < r.length; i++)
+            r[i] -= b[i];
+        return r;
+    }
+}